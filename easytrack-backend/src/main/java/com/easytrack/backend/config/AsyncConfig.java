@@ -0,0 +1,17 @@
+package com.easytrack.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // @Async work runs against the shard of the thread that submitted it
+    @Bean
+    public TaskDecorator shardContextTaskDecorator() {
+        return ShardContext::wrap;
+    }
+}
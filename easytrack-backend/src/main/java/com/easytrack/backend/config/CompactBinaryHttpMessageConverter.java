@@ -0,0 +1,84 @@
+package com.easytrack.backend.config;
+
+import com.easytrack.backend.dto.DashboardSummaryDTO;
+import com.easytrack.backend.util.CompactBinaryCodec;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.List;
+
+// Writes transaction lists and the dashboard summary in the CompactBinaryCodec format. Only
+// endpoints that list MEDIA_TYPE in their "produces" offer it, after JSON, so clients get it
+// only by asking for it explicitly.
+public class CompactBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-easytrack-binary";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public CompactBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    // Whether an Accept header asks for this format over JSON; used to keep ETags of the two
+    // representations apart
+    public static boolean isPreferred(String accept) {
+        if (accept == null || !accept.contains(MEDIA_TYPE_VALUE)) {
+            return false;
+        }
+        try {
+            double binary = 0;
+            double json = 0;
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (MEDIA_TYPE.equalsTypeAndSubtype(mediaType)) {
+                    binary = Math.max(binary, mediaType.getQualityValue());
+                } else if (MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType)) {
+                    json = Math.max(json, mediaType.getQualityValue());
+                }
+            }
+            return binary > 0 && binary >= json;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) || DashboardSummaryDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    // Never chosen for */* or a missing Accept header
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && MEDIA_TYPE.equalsTypeAndSubtype(mediaType) && supports(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading " + MEDIA_TYPE_VALUE + " is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        byte[] encoded;
+        try {
+            encoded = body instanceof DashboardSummaryDTO summary
+                    ? CompactBinaryCodec.encodeDashboard(summary)
+                    : CompactBinaryCodec.encodeTransactions((List<?>) body);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new HttpMessageNotWritableException("Cannot encode response as " + MEDIA_TYPE_VALUE, e);
+        }
+        outputMessage.getHeaders().setContentLength(encoded.length);
+        outputMessage.getBody().write(encoded);
+    }
+}
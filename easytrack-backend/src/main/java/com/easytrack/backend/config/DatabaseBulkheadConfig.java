@@ -0,0 +1,88 @@
+package com.easytrack.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Puts a BulkheadDataSource in front of every connection pool (the default one, primary and
+// replica, every shard). Enabled by the "virtual-threads" profile. The bulkhead sits directly on
+// the pool, below the routing and SQL instrumentation layers.
+@Configuration
+@ConditionalOnProperty(name = "db.bulkhead.enabled", havingValue = "true")
+public class DatabaseBulkheadConfig {
+
+    @Slf4j
+    public static class Bulkheads implements BeanPostProcessor, Ordered {
+
+        private final int maxConcurrency;
+        private final Duration acquireTimeout;
+        private final Map<String, BulkheadDataSource> bulkheads = new ConcurrentHashMap<>();
+
+        public Bulkheads(int maxConcurrency, Duration acquireTimeout) {
+            this.maxConcurrency = maxConcurrency;
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        // Runs before the SQL instrumentation post-processor so the proxy wraps the bulkhead
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource pool) {
+                return wrap(pool);
+            }
+            return bean;
+        }
+
+        // For pools that are not beans themselves (shards 1..n)
+        public DataSource wrap(HikariDataSource pool) {
+            int permits = maxConcurrency > 0 ? maxConcurrency : pool.getMaximumPoolSize();
+            BulkheadDataSource bulkhead = new BulkheadDataSource(pool, permits, acquireTimeout);
+            bulkheads.put(pool.getPoolName() != null ? pool.getPoolName() : "default", bulkhead);
+            log.info("Database bulkhead for pool {}: {} concurrent connections", pool.getPoolName(), permits);
+            return bulkhead;
+        }
+
+        public Map<String, BulkheadDataSource> getBulkheads() {
+            return bulkheads;
+        }
+    }
+
+    // max-concurrency 0 means the pool's maximum size
+    @Bean
+    public static Bulkheads databaseBulkheads(@Value("${db.bulkhead.max-concurrency:0}") int maxConcurrency,
+                                              @Value("${db.bulkhead.acquire-timeout:10s}") Duration acquireTimeout) {
+        return new Bulkheads(maxConcurrency, acquireTimeout);
+    }
+
+    @Bean
+    public MeterBinder databaseBulkheadMetrics(Bulkheads databaseBulkheads) {
+        return registry -> databaseBulkheads.getBulkheads().forEach((pool, bulkhead) -> {
+            Gauge.builder("db.bulkhead.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+                    .tag("pool", pool)
+                    .register(registry);
+            Gauge.builder("db.bulkhead.waiting", bulkhead, BulkheadDataSource::getWaitingThreads)
+                    .tag("pool", pool)
+                    .register(registry);
+            FunctionCounter.builder("db.bulkhead.rejected", bulkhead, BulkheadDataSource::getRejectedCount)
+                    .tag("pool", pool)
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.easytrack.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Entities that moved from AUTO_INCREMENT to pooled sequences (emulated with *_seq tables on
+// MySQL) may already have rows. Before anything is inserted, each sequence is moved past the
+// highest existing id, leaving a gap of one allocation block.
+// With sharding, each shard also starts its ids at shard << 40, so ids stay unique across
+// shards and a user's rows can be moved to another shard unchanged.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int SHARD_ID_BITS = 40;
+
+    // sequence table -> entity table
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "transactions_seq", "transactions",
+            "budgets_seq", "budgets",
+            "recurring_transactions_seq", "recurring_transactions",
+            "recurring_occurrences_seq", "recurring_occurrences",
+            "transaction_patterns_seq", "transaction_patterns",
+            "categories_seq", "categories",
+            "accounts_seq", "accounts"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    // Depending on the EntityManagerFactory makes this run after the schema is in place
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequences() {
+        shardRouter.forEachShard(() -> {
+            long base = (long) ShardContext.current() << SHARD_ID_BITS;
+            SEQUENCES.forEach((sequence, table) -> {
+                int updated = jdbcTemplate.update(
+                        "UPDATE " + sequence + " SET next_val = GREATEST(next_val, " +
+                                "(SELECT COALESCE(MAX(id), 0) + " + (ALLOCATION_SIZE + 1) + " FROM " + table + "), ?)",
+                        base);
+                if (updated == 0) {
+                    log.warn("Sequence table {} has no row; ids for {} are not aligned", sequence, table);
+                }
+            });
+
+            // users keeps AUTO_INCREMENT; MySQL raises a lower value to MAX(id) + 1 by itself
+            if (base > 0) {
+                jdbcTemplate.execute("ALTER TABLE users AUTO_INCREMENT = " + base);
+            }
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.easytrack.backend.config;
+
+import com.easytrack.backend.service.RecurringPatternService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Operator trigger for the recurring pattern backfill (normally run by recurring.detection.backfill-cron).
+// The rebuild runs in the background under the same partition leases as the scheduled job. Not
+// exposed by default; enable JMX and add "patterns" to management.endpoints.jmx.exposure.include.
+@Component
+@Endpoint(id = "patterns")
+@RequiredArgsConstructor
+public class RecurringPatternsEndpoint {
+
+    private final RecurringPatternService recurringPatternService;
+
+    @ReadOperation
+    public Map<String, Object> patterns() {
+        return Map.of("backfillRunning", recurringPatternService.isBackfillRunning());
+    }
+
+    @WriteOperation
+    public Map<String, Object> backfill() {
+        return Map.of("started", recurringPatternService.startBackfill());
+    }
+}
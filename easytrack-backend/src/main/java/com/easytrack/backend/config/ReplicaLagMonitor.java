@@ -0,0 +1,67 @@
+package com.easytrack.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Polls the replica's replication status; reads are routed there only while it is
+// reachable, replicating and no further behind than max-lag.
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private final boolean requireReplication;
+
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, boolean requireReplication) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        this.requireReplication = requireReplication;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public void markUnavailable() {
+        replicaUsable = false;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:5s}")
+    public void check() {
+        boolean usable;
+        try {
+            Long lagSeconds = currentLagSeconds();
+            if (lagSeconds == null) {
+                // Not a replica, or replication stopped
+                usable = !requireReplication;
+            } else {
+                usable = lagSeconds <= maxLag.toSeconds();
+            }
+        } catch (Exception e) {
+            log.debug("Replica status check failed: {}", e.getMessage());
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            log.info("Replica reads {}", usable ? "enabled" : "disabled");
+        }
+        replicaUsable = usable;
+    }
+
+    private Long currentLagSeconds() {
+        List<Map<String, Object>> status = replicaJdbcTemplate.queryForList("SHOW REPLICA STATUS");
+        if (status.isEmpty()) {
+            return null;
+        }
+        Object lag = status.get(0).get("Seconds_Behind_Source");
+        return lag instanceof Number number ? number.longValue() : null;
+    }
+}
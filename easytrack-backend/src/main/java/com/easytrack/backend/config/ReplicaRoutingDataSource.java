@@ -0,0 +1,62 @@
+package com.easytrack.backend.config;
+
+import com.easytrack.backend.security.ReadYourWritesTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+// Read-only transactions go to the replica unless it is lagging or unreachable, or the
+// current user wrote within the sticky window. Everything else goes to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy so the read-only flag is known on routing.
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    DataSource replica,
+                                    ReplicaLagMonitor replicaLagMonitor,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && replicaLagMonitor.isReplicaUsable()
+                && !readYourWritesTracker.isCurrentRequestSticky()
+                ? Target.REPLICA
+                : Target.PRIMARY;
+        log.debug("Routing {} to {}", TransactionSynchronizationManager.getCurrentTransactionName(), target);
+        return target;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object target = determineCurrentLookupKey();
+        if (target == Target.REPLICA) {
+            try {
+                return getResolvedDataSources().get(Target.REPLICA).getConnection();
+            } catch (SQLException e) {
+                // Serve the read from the primary and keep away from the replica until the next check
+                log.warn("Replica connection failed, falling back to primary: {}", e.getMessage());
+                replicaLagMonitor.markUnavailable();
+            }
+        }
+        return getResolvedDataSources().get(Target.PRIMARY).getConnection();
+    }
+}
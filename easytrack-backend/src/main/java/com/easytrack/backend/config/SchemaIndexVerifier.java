@@ -0,0 +1,92 @@
+package com.easytrack.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Refuses to start when an index the repositories rely on is missing, instead of
+// degrading into full scans. An index matches if it starts with the expected columns.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaIndexVerifier {
+
+    private record ExpectedIndex(String table, List<String> columns) {
+    }
+
+    private static final List<ExpectedIndex> EXPECTED_INDEXES = List.of(
+            new ExpectedIndex("transactions", List.of("user_id", "transaction_date", "id")),
+            new ExpectedIndex("transactions", List.of("user_id", "category_id", "transaction_date")),
+            new ExpectedIndex("transactions", List.of("user_id", "account_id", "transaction_date")),
+            new ExpectedIndex("budgets", List.of("user_id", "category_id", "start_date", "end_date")),
+            new ExpectedIndex("recurring_transactions", List.of("is_active", "next_occurrence"))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    // Depending on the EntityManagerFactory makes this run after the migrations
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${schema.verify-indexes:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void verify() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> missing = new ArrayList<>();
+        shardRouter.forEachShard(() -> {
+            for (ExpectedIndex expected : EXPECTED_INDEXES) {
+                if (!hasIndex(expected)) {
+                    missing.add("shard " + ShardContext.current() + ": "
+                            + expected.table() + "(" + String.join(", ", expected.columns()) + ")");
+                }
+            }
+        });
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes: " + String.join("; ", missing));
+        }
+        log.info("Verified {} access-path indexes", EXPECTED_INDEXES.size());
+    }
+
+    private boolean hasIndex(ExpectedIndex expected) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT index_name, column_name FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? " +
+                        "ORDER BY index_name, seq_in_index",
+                expected.table());
+
+        String currentIndex = null;
+        int position = 0;
+        for (Map<String, Object> row : rows) {
+            String indexName = String.valueOf(row.get("index_name"));
+            if (!indexName.equals(currentIndex)) {
+                currentIndex = indexName;
+                position = 0;
+            }
+            if (position < expected.columns().size()
+                    && expected.columns().get(position).equalsIgnoreCase(String.valueOf(row.get("column_name")))) {
+                position++;
+                if (position == expected.columns().size()) {
+                    return true;
+                }
+            } else {
+                // Column order broken for this index; skip the rest of it
+                position = Integer.MAX_VALUE;
+            }
+        }
+        return false;
+    }
+}
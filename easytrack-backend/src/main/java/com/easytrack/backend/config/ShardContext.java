@@ -0,0 +1,73 @@
+package com.easytrack.backend.config;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+// The shard the current thread's database work is routed to. Unbound threads use shard 0,
+// which is also the only shard when sharding is disabled.
+public final class ShardContext {
+
+    public static final int DEFAULT_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : DEFAULT_SHARD;
+    }
+
+    static void bind(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void runOn(int shard, Runnable action) {
+        callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    // Carries the caller's shard over to work handed to another thread
+    public static Runnable wrap(Runnable action) {
+        int shard = current();
+        return () -> runOn(shard, action);
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> action) {
+        int shard = current();
+        return () -> {
+            Integer previous = CURRENT.get();
+            CURRENT.set(shard);
+            try {
+                return action.call();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.easytrack.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Only active with datasource.shards.enabled=true (see the "shards" profile). Shard 0 is the
+// regular spring.datasource and also holds the shard directory; datasource.shards.urls adds
+// shards 1..n. Every shard carries the full schema and is migrated by Flyway on startup.
+@Configuration
+@ConditionalOnProperty(name = "datasource.shards.enabled", havingValue = "true")
+public class ShardDataSourceConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+                                                         @Qualifier("defaultShardDataSource") DataSource defaultShardDataSource,
+                                                         @Value("${datasource.shards.urls}") List<String> urls,
+                                                         @Value("${datasource.shards.username:${spring.datasource.username}}") String username,
+                                                         @Value("${datasource.shards.password:${spring.datasource.password}}") String password,
+                                                         @Value("${datasource.shards.maximum-pool-size:10}") int maximumPoolSize,
+                                                         @Value("${datasource.replica.enabled:false}") boolean replicaEnabled,
+                                                         ObjectProvider<DatabaseBulkheadConfig.Bulkheads> bulkheads) {
+        if (replicaEnabled) {
+            throw new IllegalStateException("datasource.shards and datasource.replica cannot be enabled together");
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(defaultShardDataSource);
+        for (String url : urls) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shards.size());
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setJdbcUrl(url.trim());
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            DatabaseBulkheadConfig.Bulkheads bulkhead = bulkheads.getIfAvailable();
+            shards.add(bulkhead != null ? bulkhead.wrap(dataSource) : dataSource);
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shards);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource defaultShardDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("shard-0");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(ShardRoutingDataSource shardRoutingDataSource,
+                                         @Value("${datasource.shards.directory-cache-ttl:5s}") Duration cacheTtl,
+                                         @Value("${datasource.shards.directory-cache-size:100000}") long cacheMaxSize) {
+        return new ShardDirectory(shardRoutingDataSource.getShard(ShardContext.DEFAULT_SHARD),
+                shardRoutingDataSource.getShardCount(), cacheTtl, cacheMaxSize);
+    }
+
+    // Applies the same migrations to every shard, then fills the directory with pre-existing users
+    @Bean
+    public FlywayMigrationStrategy shardFlywayMigrationStrategy(ShardRoutingDataSource shardRoutingDataSource,
+                                                                ShardDirectory shardDirectory) {
+        return flyway -> {
+            for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shardRoutingDataSource.getShard(shard))
+                        .load()
+                        .migrate();
+            }
+            shardDirectory.backfillDefaultShard();
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.easytrack.backend.config;
+
+import com.easytrack.backend.exception.DuplicateResourceException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// The shard map: which shard holds each user's rows. Lives in shard_directory on shard 0 and is
+// read through a short-lived cache, so a change made by the migration tool reaches every node
+// within one TTL.
+@Slf4j
+public class ShardDirectory {
+
+    public enum Status {
+        ACTIVE,
+        MIGRATING
+    }
+
+    public record Placement(long userId, int shard, Status status) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int shardCount;
+    private final Cache<Long, Placement> placements;
+
+    public ShardDirectory(DataSource directoryDataSource, int shardCount, Duration cacheTtl, long cacheMaxSize) {
+        this.jdbcTemplate = new JdbcTemplate(directoryDataSource);
+        this.shardCount = shardCount;
+        this.placements = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    // Users created before sharding was enabled all live on shard 0
+    public void backfillDefaultShard() {
+        int added = jdbcTemplate.update("INSERT IGNORE INTO shard_directory (user_id, email, shard_id, status, updated_at) " +
+                "SELECT id, email, 0, 'ACTIVE', NOW(6) FROM users");
+        if (added > 0) {
+            log.info("Added {} existing users to the shard directory", added);
+        }
+    }
+
+    public Optional<Placement> findByUserId(Long userId) {
+        return Optional.ofNullable(placements.get(userId, id -> jdbcTemplate.query(
+                "SELECT user_id, shard_id, status FROM shard_directory WHERE user_id = ?",
+                (rs, rowNum) -> toPlacement(rs.getLong("user_id"), rs.getInt("shard_id"), rs.getString("status")),
+                id).stream().findFirst().orElse(null)));
+    }
+
+    public Optional<Placement> findByEmail(String email) {
+        return jdbcTemplate.query(
+                "SELECT user_id, shard_id, status FROM shard_directory WHERE email = ?",
+                (rs, rowNum) -> toPlacement(rs.getLong("user_id"), rs.getInt("shard_id"), rs.getString("status")),
+                email).stream().findFirst();
+    }
+
+    // New users are spread over the shards by a hash of their email; the directory is
+    // authoritative afterwards, so users can later be moved independently of the hash
+    public int placeNewUser(String email) {
+        int hash = email.toLowerCase().hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return Math.floorMod(hash, shardCount);
+    }
+
+    public void register(Long userId, String email, int shard) {
+        try {
+            jdbcTemplate.update("INSERT INTO shard_directory (user_id, email, shard_id, status, updated_at) " +
+                    "VALUES (?, ?, ?, 'ACTIVE', NOW(6))", userId, email, shard);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateResourceException("User", "email", email);
+        }
+        placements.invalidate(userId);
+    }
+
+    public void remove(Long userId) {
+        jdbcTemplate.update("DELETE FROM shard_directory WHERE user_id = ?", userId);
+        placements.invalidate(userId);
+    }
+
+    public void update(Long userId, int shard, Status status) {
+        jdbcTemplate.update("UPDATE shard_directory SET shard_id = ?, status = ?, updated_at = NOW(6) WHERE user_id = ?",
+                shard, status.name(), userId);
+        placements.invalidate(userId);
+    }
+
+    public List<Long> findUserIds(int shard) {
+        return jdbcTemplate.queryForList("SELECT user_id FROM shard_directory WHERE shard_id = ? ORDER BY user_id",
+                Long.class, shard);
+    }
+
+    public Map<Integer, Long> countUsersByShard() {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            counts.put(shard, 0L);
+        }
+        jdbcTemplate.query("SELECT shard_id, COUNT(*) AS users FROM shard_directory GROUP BY shard_id",
+                rs -> {
+                    counts.put(rs.getInt("shard_id"), rs.getLong("users"));
+                });
+        return counts;
+    }
+
+    public List<Long> findMigratingUserIds() {
+        return jdbcTemplate.queryForList("SELECT user_id FROM shard_directory WHERE status = 'MIGRATING'", Long.class);
+    }
+
+    private static Placement toPlacement(long userId, int shard, String status) {
+        return new Placement(userId, shard, Status.valueOf(status));
+    }
+}
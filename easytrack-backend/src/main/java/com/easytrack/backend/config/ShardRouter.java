@@ -0,0 +1,155 @@
+package com.easytrack.backend.config;
+
+import com.easytrack.backend.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Entry point for choosing the shard of a unit of work. With sharding disabled there is a
+// single shard and every method degrades to running the work in place.
+@Component
+public class ShardRouter {
+
+    private final ShardDirectory directory;
+    private final TransactionTemplate readTemplate;
+    private final long migrationRetryAfterSeconds;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(ObjectProvider<ShardDirectory> directory,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${datasource.shards.migration.retry-after:30}") long migrationRetryAfterSeconds) {
+        this.directory = directory.getIfAvailable();
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.migrationRetryAfterSeconds = migrationRetryAfterSeconds;
+        this.fanOutExecutor = this.directory != null
+                ? Executors.newFixedThreadPool(this.directory.getShardCount(), runnable -> {
+                    Thread thread = new Thread(runnable, "shard-fan-out");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public int getShardCount() {
+        return directory != null ? directory.getShardCount() : 1;
+    }
+
+    // Binds the thread to the user's shard; requests of a user being moved are turned away
+    public void bindUser(Long userId) {
+        if (directory == null || userId == null) {
+            return;
+        }
+        directory.findByUserId(userId).ifPresent(placement -> {
+            if (placement.status() == ShardDirectory.Status.MIGRATING) {
+                throw new ServiceUnavailableException("Account data is being moved, please retry shortly",
+                        migrationRetryAfterSeconds);
+            }
+            ShardContext.bind(placement.shard());
+        });
+    }
+
+    public void bindEmail(String email) {
+        if (directory == null || email == null) {
+            return;
+        }
+        directory.findByEmail(email).ifPresent(placement -> bindUser(placement.userId()));
+    }
+
+    public void bindNewUser(String email) {
+        if (directory != null) {
+            ShardContext.bind(directory.placeNewUser(email));
+        }
+    }
+
+    // Records a user created on the current shard. The directory row is removed again if the
+    // surrounding transaction rolls back, so a failed registration does not reserve the email.
+    public void registerUser(Long userId, String email) {
+        if (directory == null) {
+            return;
+        }
+        directory.register(userId, email, ShardContext.current());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        directory.remove(userId);
+                    }
+                }
+            });
+        }
+    }
+
+    public void unregisterUser(Long userId) {
+        if (directory == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    directory.remove(userId);
+                }
+            });
+        } else {
+            directory.remove(userId);
+        }
+    }
+
+    // Runs the action once per shard, sequentially, with the thread bound to each shard in turn
+    public void forEachShard(Runnable action) {
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            ShardContext.runOn(shard, action);
+        }
+    }
+
+    // Runs a global query on every shard in parallel, each in its own read-only transaction,
+    // and concatenates the results
+    public <T> List<T> fanOut(Supplier<List<T>> query) {
+        if (directory == null) {
+            return query.get();
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> ShardContext.callOn(target, () -> readTemplate.execute(status -> query.get())),
+                    fanOutExecutor));
+        }
+        List<T> results = new ArrayList<>();
+        try {
+            futures.forEach(future -> results.addAll(future.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.easytrack.backend.config;
+
+import com.easytrack.backend.service.ShardMigrationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Looks up and moves single users; exposed like the "shards" endpoint
+@Component
+@Endpoint(id = "shardusers")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datasource.shards.enabled", havingValue = "true")
+public class ShardUsersEndpoint {
+
+    private final ShardDirectory shardDirectory;
+    private final ShardMigrationService shardMigrationService;
+
+    @ReadOperation
+    public ShardDirectory.Placement placement(@Selector long userId) {
+        return shardDirectory.findByUserId(userId).orElse(null);
+    }
+
+    // Blocks for the drain period plus the copy; returns the number of rows moved per table
+    @WriteOperation
+    public Map<String, Integer> move(@Selector long userId, int targetShard) {
+        return shardMigrationService.moveUser(userId, targetShard);
+    }
+}
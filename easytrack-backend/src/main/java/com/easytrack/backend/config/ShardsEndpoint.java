@@ -0,0 +1,42 @@
+package com.easytrack.backend.config;
+
+import com.easytrack.backend.service.ShardMigrationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Operator view of the shard map and the shard split tool. Not exposed over HTTP by default;
+// the "shards" profile exposes it over JMX only.
+@Component
+@Endpoint(id = "shards")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datasource.shards.enabled", havingValue = "true")
+public class ShardsEndpoint {
+
+    private final ShardDirectory shardDirectory;
+    private final ShardMigrationService shardMigrationService;
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("usersByShard", shardDirectory.countUsersByShard());
+        status.put("migratingUsers", shardDirectory.findMigratingUserIds());
+        status.put("splitRunning", shardMigrationService.isSplitRunning());
+        status.put("splitRemaining", shardMigrationService.getSplitRemaining());
+        return status;
+    }
+
+    // Starts moving about half of the source shard's users to the target shard in the background
+    @WriteOperation
+    public Map<String, Object> split(@Selector int sourceShard, int targetShard) {
+        int users = shardMigrationService.split(sourceShard, targetShard);
+        return Map.of("sourceShard", sourceShard, "targetShard", targetShard, "usersToMove", users);
+    }
+}
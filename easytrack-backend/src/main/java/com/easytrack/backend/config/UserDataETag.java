@@ -0,0 +1,16 @@
+package com.easytrack.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a GET endpoint whose response depends only on the caller's own data and today's date, read
+// from the database on every request (not from a node-local cache such as the recurring calendar
+// or the report segments).
+// UserDataETagInterceptor answers it from the user's data version: a matching If-None-Match
+// gets 304 Not Modified without invoking the handler.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UserDataETag {
+}
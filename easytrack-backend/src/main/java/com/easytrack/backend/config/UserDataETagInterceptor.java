@@ -0,0 +1,63 @@
+package com.easytrack.backend.config;
+
+import com.easytrack.backend.security.ReadYourWritesTracker;
+import com.easytrack.backend.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Strong ETags for @UserDataETag endpoints: "<userId>-<dataVersion>-<epochDay>[-b]". The version is
+// read before the handler runs. A write committing in between makes the tag older than the body,
+// which only costs a 200 on the next request. The reverse - a body older than its tag - would be
+// kept by the client until the next write, so tagged endpoints must build the body from the
+// database on every request, never from a node-local cache that other nodes' writes do not
+// invalidate. The day is part of the tag because dashboard and budget responses move with the
+// date even without writes.
+@Component
+@RequiredArgsConstructor
+public class UserDataETagInterceptor implements HandlerInterceptor {
+
+    private final DataVersionService dataVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !handlerMethod.hasMethodAnnotation(UserDataETag.class)
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+
+        Long userId = ReadYourWritesTracker.currentUserId();
+        if (userId == null || !isOwnData(request, userId)) {
+            return true;
+        }
+
+        // The binary representation of the same data gets its own tag
+        String representation = CompactBinaryHttpMessageConverter.isPreferred(request.getHeader(HttpHeaders.ACCEPT))
+                ? "-b" : "";
+        String etag = "\"" + userId + "-" + dataVersionService.getVersion(userId)
+                + "-" + LocalDate.now().toEpochDay() + representation + "\"";
+        // Browsers may keep the response but must revalidate it on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    // /user/{userId}/... endpoints for another user are rejected by the handler; leave them alone
+    @SuppressWarnings("unchecked")
+    private boolean isOwnData(HttpServletRequest request, Long userId) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String pathUserId = variables != null ? variables.get("userId") : null;
+        return pathUserId == null || pathUserId.equals(userId.toString());
+    }
+}
@@ -1,5 +1,6 @@
 package com.easytrack.backend.controller;
 
+import com.easytrack.backend.config.UserDataETag;
 import com.easytrack.backend.dto.AccountDTO;
 import com.easytrack.backend.entity.Account;
 import com.easytrack.backend.entity.User;
@@ -51,9 +52,13 @@ public class AccountController {
     }
 
     @GetMapping
+    @UserDataETag
     @Operation(summary = "Get all accounts for authenticated user")
-    public ResponseEntity<List<AccountDTO>> getAllAccounts() {
+    public ResponseEntity<List<?>> getAllAccounts(@RequestParam(required = false) String fields) {
         Long userId = securityUtil.getAuthenticatedUserId();
+        if (fields != null) {
+            return ResponseEntity.ok(accountService.getAccountsByUserId(userId, fields));
+        }
 
         List<AccountDTO> accounts = accountService.getAccountsByUserId(userId).stream()
                 .map(accountMapper::toDTO)
@@ -62,9 +67,13 @@ public class AccountController {
     }
 
     @GetMapping("/active")
+    @UserDataETag
     @Operation(summary = "Get active accounts for authenticated user")
-    public ResponseEntity<List<AccountDTO>> getActiveAccounts() {
+    public ResponseEntity<List<?>> getActiveAccounts(@RequestParam(required = false) String fields) {
         Long userId = securityUtil.getAuthenticatedUserId();
+        if (fields != null) {
+            return ResponseEntity.ok(accountService.getActiveAccountsByUserId(userId, fields));
+        }
 
         List<AccountDTO> accounts = accountService.getActiveAccountsByUserId(userId).stream()
                 .map(accountMapper::toDTO)
@@ -73,6 +82,7 @@ public class AccountController {
     }
 
     @GetMapping("/total-balance")
+    @UserDataETag
     @Operation(summary = "Get total balance for authenticated user")
     public ResponseEntity<BigDecimal> getTotalBalance() {
         Long userId = securityUtil.getAuthenticatedUserId();
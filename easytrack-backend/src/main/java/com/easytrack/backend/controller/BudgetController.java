@@ -1,5 +1,6 @@
 package com.easytrack.backend.controller;
 
+import com.easytrack.backend.config.UserDataETag;
 import com.easytrack.backend.entity.Budget;
 import com.easytrack.backend.service.BudgetService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -45,18 +46,21 @@ public class BudgetController {
     }
 
     @GetMapping("/user/{userId}")
+    @UserDataETag
     @Operation(summary = "Get budgets by user ID")
     public ResponseEntity<List<Budget>> getBudgetsByUserId(@PathVariable Long userId) {
         return ResponseEntity.ok(budgetService.getBudgetsByUserId(userId));
     }
 
     @GetMapping("/user/{userId}/active")
+    @UserDataETag
     @Operation(summary = "Get active budgets by user ID")
     public ResponseEntity<List<Budget>> getActiveBudgetsByUserId(@PathVariable Long userId) {
         return ResponseEntity.ok(budgetService.getActiveBudgetsByUserId(userId));
     }
 
     @GetMapping("/user/{userId}/current")
+    @UserDataETag
     @Operation(summary = "Get current budgets for a specific date")
     public ResponseEntity<List<Budget>> getCurrentBudgets(
             @PathVariable Long userId,
@@ -1,5 +1,6 @@
 package com.easytrack.backend.controller;
 
+import com.easytrack.backend.config.UserDataETag;
 import com.easytrack.backend.dto.CategoryDTO;
 import com.easytrack.backend.entity.Category;
 import com.easytrack.backend.entity.User;
@@ -50,6 +51,7 @@ public class CategoryController {
     }
 
     @GetMapping
+    @UserDataETag
     @Operation(summary = "Get all categories for authenticated user")
     public ResponseEntity<List<CategoryDTO>> getAllCategories() {
         Long userId = securityUtil.getAuthenticatedUserId();
@@ -61,6 +63,7 @@ public class CategoryController {
     }
 
     @GetMapping("/type/{type}")
+    @UserDataETag
     @Operation(summary = "Get categories by type for authenticated user")
     public ResponseEntity<List<CategoryDTO>> getCategoriesByType(@PathVariable Category.CategoryType type) {
         Long userId = securityUtil.getAuthenticatedUserId();
@@ -1,11 +1,14 @@
 package com.easytrack.backend.controller;
 
+import com.easytrack.backend.config.CompactBinaryHttpMessageConverter;
+import com.easytrack.backend.config.UserDataETag;
 import com.easytrack.backend.dto.DashboardSummaryDTO;
 import com.easytrack.backend.service.DashboardService;
 import com.easytrack.backend.util.SecurityUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,7 +21,9 @@ public class DashboardController {
     private final DashboardService dashboardService;
     private final SecurityUtil securityUtil;
 
-    @GetMapping("/summary")
+    @GetMapping(value = "/summary",
+            produces = {MediaType.APPLICATION_JSON_VALUE, CompactBinaryHttpMessageConverter.MEDIA_TYPE_VALUE})
+    @UserDataETag
     @Operation(summary = "Get comprehensive dashboard summary for authenticated user",
             description = "Returns financial overview, budget status, spending trends, and recent transactions")
     public ResponseEntity<DashboardSummaryDTO> getDashboardSummary() {
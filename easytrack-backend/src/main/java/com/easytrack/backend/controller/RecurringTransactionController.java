@@ -1,5 +1,7 @@
 package com.easytrack.backend.controller;
 
+import com.easytrack.backend.config.UserDataETag;
+import com.easytrack.backend.dto.RecurringCalendarEntryDTO;
 import com.easytrack.backend.dto.RecurringTransactionDTO;
 import com.easytrack.backend.entity.Account;
 import com.easytrack.backend.entity.Category;
@@ -8,17 +10,21 @@ import com.easytrack.backend.entity.User;
 import com.easytrack.backend.mapper.RecurringTransactionMapper;
 import com.easytrack.backend.service.AccountService;
 import com.easytrack.backend.service.CategoryService;
+import com.easytrack.backend.service.RecurringCalendarService;
+import com.easytrack.backend.service.RecurringPatternService;
 import com.easytrack.backend.service.RecurringTransactionService;
 import com.easytrack.backend.util.SecurityUtil;
 import com.easytrack.backend.exception.ResourceNotFoundException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,6 +35,8 @@ import java.util.stream.Collectors;
 public class RecurringTransactionController {
 
     private final RecurringTransactionService recurringTransactionService;
+    private final RecurringCalendarService recurringCalendarService;
+    private final RecurringPatternService recurringPatternService;
     private final AccountService accountService;
     private final CategoryService categoryService;
     private final RecurringTransactionMapper recurringTransactionMapper;
@@ -62,6 +70,7 @@ public class RecurringTransactionController {
     }
 
     @GetMapping
+    @UserDataETag
     @Operation(summary = "Get all recurring transactions for authenticated user")
     public ResponseEntity<List<RecurringTransactionDTO>> getAllRecurringTransactions() {
         Long userId = securityUtil.getAuthenticatedUserId();
@@ -73,6 +82,7 @@ public class RecurringTransactionController {
     }
 
     @GetMapping("/active")
+    @UserDataETag
     @Operation(summary = "Get active recurring transactions for authenticated user")
     public ResponseEntity<List<RecurringTransactionDTO>> getActiveRecurringTransactions() {
         Long userId = securityUtil.getAuthenticatedUserId();
@@ -83,6 +93,22 @@ public class RecurringTransactionController {
         return ResponseEntity.ok(recurringTransactions);
     }
 
+    @GetMapping("/calendar")
+    @Operation(summary = "Get projected occurrences of active recurring transactions in a date range")
+    public ResponseEntity<List<RecurringCalendarEntryDTO>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long userId = securityUtil.getAuthenticatedUserId();
+        return ResponseEntity.ok(recurringCalendarService.getCalendar(userId, from, to));
+    }
+
+    @GetMapping("/suggestions")
+    @Operation(summary = "Get recurring transactions detected in the authenticated user's history")
+    public ResponseEntity<List<RecurringTransactionDTO>> getSuggestions() {
+        Long userId = securityUtil.getAuthenticatedUserId();
+        return ResponseEntity.ok(recurringPatternService.getSuggestions(userId));
+    }
+
     @PostMapping("/process")
     @Operation(summary = "Process all due recurring transactions for authenticated user")
     public ResponseEntity<Void> processRecurringTransactions() {
@@ -0,0 +1,34 @@
+package com.easytrack.backend.controller;
+
+import com.easytrack.backend.dto.ReportDTO;
+import com.easytrack.backend.service.ReportService;
+import com.easytrack.backend.util.SecurityUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Tag(name = "Reports", description = "Yearly and lifetime income and expense reports")
+public class ReportController {
+
+    private final ReportService reportService;
+    private final SecurityUtil securityUtil;
+
+    @GetMapping("/yearly/{year}")
+    @Operation(summary = "Get income and expense totals by month and category for a year")
+    public ResponseEntity<ReportDTO> getYearlyReport(@PathVariable int year) {
+        Long userId = securityUtil.getAuthenticatedUserId();
+        return ResponseEntity.ok(reportService.getYearlyReport(userId, year));
+    }
+
+    @GetMapping("/lifetime")
+    @Operation(summary = "Get income and expense totals by month and category since the first transaction")
+    public ResponseEntity<ReportDTO> getLifetimeReport() {
+        Long userId = securityUtil.getAuthenticatedUserId();
+        return ResponseEntity.ok(reportService.getLifetimeReport(userId));
+    }
+}
@@ -0,0 +1,27 @@
+package com.easytrack.backend.controller;
+
+import com.easytrack.backend.service.LiveUpdateService;
+import com.easytrack.backend.util.SecurityUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@Tag(name = "Live Updates", description = "Server-sent events for balances, budgets and transactions")
+public class StreamController {
+
+    private final LiveUpdateService liveUpdateService;
+    private final SecurityUtil securityUtil;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream transaction, account-balance, budget-progress and sync events for the authenticated user")
+    public SseEmitter stream() {
+        Long userId = securityUtil.getAuthenticatedUserId();
+        return liveUpdateService.subscribe(userId);
+    }
+}
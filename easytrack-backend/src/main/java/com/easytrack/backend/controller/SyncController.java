@@ -0,0 +1,29 @@
+package com.easytrack.backend.controller;
+
+import com.easytrack.backend.config.UserDataETag;
+import com.easytrack.backend.dto.SyncChangesDTO;
+import com.easytrack.backend.service.SyncService;
+import com.easytrack.backend.util.SecurityUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@Tag(name = "Sync", description = "Incremental sync of a user's data for offline-capable clients")
+public class SyncController {
+
+    private final SyncService syncService;
+    private final SecurityUtil securityUtil;
+
+    @GetMapping("/changes")
+    @UserDataETag
+    @Operation(summary = "Get entities changed or deleted since a sync token, or everything without one")
+    public ResponseEntity<SyncChangesDTO> getChanges(@RequestParam(required = false) String since) {
+        Long userId = securityUtil.getAuthenticatedUserId();
+        return ResponseEntity.ok(syncService.getChanges(userId, since));
+    }
+}
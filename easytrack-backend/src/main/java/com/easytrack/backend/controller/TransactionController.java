@@ -1,5 +1,7 @@
 package com.easytrack.backend.controller;
 
+import com.easytrack.backend.config.CompactBinaryHttpMessageConverter;
+import com.easytrack.backend.config.UserDataETag;
 import com.easytrack.backend.dto.TransactionDTO;
 import com.easytrack.backend.dto.TransactionSummaryDTO;
 import com.easytrack.backend.entity.Account;
@@ -9,14 +11,17 @@ import com.easytrack.backend.entity.User;
 import com.easytrack.backend.mapper.TransactionMapper;
 import com.easytrack.backend.service.AccountService;
 import com.easytrack.backend.service.CategoryService;
+import com.easytrack.backend.service.IdempotencyService;
 import com.easytrack.backend.service.TransactionService;
 import com.easytrack.backend.service.UserService;
 import com.easytrack.backend.exception.ResourceNotFoundException;
+import com.easytrack.backend.util.SecurityUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -37,10 +42,27 @@ public class TransactionController {
     private final AccountService accountService;
     private final CategoryService categoryService;
     private final TransactionMapper transactionMapper;
+    private final IdempotencyService idempotencyService;
+    private final SecurityUtil securityUtil;
 
     @PostMapping
-    @Operation(summary = "Create a new transaction")
-    public ResponseEntity<TransactionDTO> createTransaction(@Valid @RequestBody TransactionDTO transactionDTO) {
+    @Operation(summary = "Create a new transaction",
+            description = "With an Idempotency-Key header, retries of the same request return the first response")
+    public ResponseEntity<TransactionDTO> createTransaction(
+            @Valid @RequestBody TransactionDTO transactionDTO,
+            @RequestHeader(value = IdempotencyService.KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(create(transactionDTO), HttpStatus.CREATED);
+        }
+        IdempotencyService.Result<TransactionDTO> result = idempotencyService.execute(
+                securityUtil.getAuthenticatedUserId(), idempotencyKey, transactionDTO, TransactionDTO.class,
+                () -> create(transactionDTO));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.body());
+    }
+
+    private TransactionDTO create(TransactionDTO transactionDTO) {
         User user = userService.getUserById(transactionDTO.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", transactionDTO.getUserId()));
         Account account = accountService.getAccountById(transactionDTO.getAccountId())
@@ -50,7 +72,7 @@ public class TransactionController {
 
         Transaction transaction = transactionMapper.toEntity(transactionDTO, user, account, category);
         Transaction createdTransaction = transactionService.createTransaction(transaction);
-        return new ResponseEntity<>(transactionMapper.toDTO(createdTransaction), HttpStatus.CREATED);
+        return transactionMapper.toDTO(createdTransaction);
     }
 
     @GetMapping("/{id}")
@@ -61,7 +83,7 @@ public class TransactionController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @GetMapping
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, CompactBinaryHttpMessageConverter.MEDIA_TYPE_VALUE})
     @Operation(summary = "Get all transactions")
     public ResponseEntity<List<TransactionDTO>> getAllTransactions() {
         List<TransactionDTO> transactions = transactionService.getAllTransactions().stream()
@@ -70,54 +92,85 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
 
-    @GetMapping("/user/{userId}")
+    @GetMapping(value = "/user/{userId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, CompactBinaryHttpMessageConverter.MEDIA_TYPE_VALUE})
+    @UserDataETag
     @Operation(summary = "Get transactions by user ID")
-    public ResponseEntity<List<TransactionDTO>> getTransactionsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<List<?>> getTransactionsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(transactionService.getTransactionsByUserId(userId, fields));
+        }
         List<TransactionDTO> transactions = transactionService.getTransactionsByUserId(userId).stream()
                 .map(transactionMapper::toDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(transactions);
     }
 
-    @GetMapping("/user/{userId}/type/{type}")
+    @GetMapping(value = "/user/{userId}/type/{type}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, CompactBinaryHttpMessageConverter.MEDIA_TYPE_VALUE})
+    @UserDataETag
     @Operation(summary = "Get transactions by user ID and type")
-    public ResponseEntity<List<TransactionDTO>> getTransactionsByUserIdAndType(
+    public ResponseEntity<List<?>> getTransactionsByUserIdAndType(
             @PathVariable Long userId,
-            @PathVariable Transaction.TransactionType type) {
+            @PathVariable Transaction.TransactionType type,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(transactionService.getTransactionsByUserIdAndType(userId, type, fields));
+        }
         List<TransactionDTO> transactions = transactionService.getTransactionsByUserIdAndType(userId, type).stream()
                 .map(transactionMapper::toDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(transactions);
     }
 
-    @GetMapping("/user/{userId}/account/{accountId}")
+    @GetMapping(value = "/user/{userId}/account/{accountId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, CompactBinaryHttpMessageConverter.MEDIA_TYPE_VALUE})
+    @UserDataETag
     @Operation(summary = "Get transactions by account ID")
-    public ResponseEntity<List<TransactionDTO>> getTransactionsByAccountId(
+    public ResponseEntity<List<?>> getTransactionsByAccountId(
             @PathVariable Long userId,
-            @PathVariable Long accountId) {
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(transactionService.getTransactionsByAccountId(userId, accountId, fields));
+        }
         List<TransactionDTO> transactions = transactionService.getTransactionsByAccountId(userId, accountId).stream()
                 .map(transactionMapper::toDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(transactions);
     }
 
-    @GetMapping("/user/{userId}/category/{categoryId}")
+    @GetMapping(value = "/user/{userId}/category/{categoryId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, CompactBinaryHttpMessageConverter.MEDIA_TYPE_VALUE})
+    @UserDataETag
     @Operation(summary = "Get transactions by category ID")
-    public ResponseEntity<List<TransactionDTO>> getTransactionsByCategoryId(
+    public ResponseEntity<List<?>> getTransactionsByCategoryId(
             @PathVariable Long userId,
-            @PathVariable Long categoryId) {
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(transactionService.getTransactionsByCategoryId(userId, categoryId, fields));
+        }
         List<TransactionDTO> transactions = transactionService.getTransactionsByCategoryId(userId, categoryId).stream()
                 .map(transactionMapper::toDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(transactions);
     }
 
-    @GetMapping("/user/{userId}/date-range")
+    @GetMapping(value = "/user/{userId}/date-range",
+            produces = {MediaType.APPLICATION_JSON_VALUE, CompactBinaryHttpMessageConverter.MEDIA_TYPE_VALUE})
+    @UserDataETag
     @Operation(summary = "Get transactions by date range")
-    public ResponseEntity<List<TransactionDTO>> getTransactionsByDateRange(
+    public ResponseEntity<List<?>> getTransactionsByDateRange(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(transactionService.getTransactionsByDateRange(userId, startDate, endDate, fields));
+        }
         List<TransactionDTO> transactions = transactionService.getTransactionsByDateRange(userId, startDate, endDate).stream()
                 .map(transactionMapper::toDTO)
                 .collect(Collectors.toList());
@@ -125,6 +178,7 @@ public class TransactionController {
     }
 
     @GetMapping("/user/{userId}/summary")
+    @UserDataETag
     @Operation(summary = "Get transaction summary for date range")
     public ResponseEntity<TransactionSummaryDTO> getTransactionSummary(
             @PathVariable Long userId,
@@ -142,8 +196,7 @@ public class TransactionController {
     @PutMapping("/{id}")
     @Operation(summary = "Update transaction")
     public ResponseEntity<TransactionDTO> updateTransaction(@PathVariable Long id, @Valid @RequestBody TransactionDTO transactionDTO) {
-        Transaction transaction = transactionService.getTransactionById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Transaction", "id", id));
+        Transaction transaction = transactionService.getEditableTransaction(id);
         Account account = accountService.getAccountById(transactionDTO.getAccountId())
                 .orElseThrow(() -> new ResourceNotFoundException("Account", "id", transactionDTO.getAccountId()));
         Category category = categoryService.getCategoryById(transactionDTO.getCategoryId())
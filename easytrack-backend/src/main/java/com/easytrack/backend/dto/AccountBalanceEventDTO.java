@@ -0,0 +1,16 @@
+package com.easytrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceEventDTO {
+    private Long accountId;
+    private BigDecimal balance;
+    private BigDecimal totalBalance;
+}
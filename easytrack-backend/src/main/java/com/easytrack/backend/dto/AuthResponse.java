@@ -10,13 +10,18 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
     private String token;
     private String type = "Bearer";
+    private String refreshToken;
+    private Long expiresIn;
     private Long userId;
     private String email;
     private String firstName;
     private String lastName;
 
-    public AuthResponse(String token, Long userId, String email, String firstName, String lastName) {
+    public AuthResponse(String token, String refreshToken, Long expiresIn,
+                        Long userId, String email, String firstName, String lastName) {
         this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
         this.userId = userId;
         this.email = email;
         this.firstName = firstName;
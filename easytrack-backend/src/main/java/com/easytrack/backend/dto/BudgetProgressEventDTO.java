@@ -0,0 +1,18 @@
+package com.easytrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetProgressEventDTO {
+    private Long budgetId;
+    private Long categoryId;
+    private BigDecimal amount;
+    private BigDecimal spent;
+    private BigDecimal progress; // percent of amount
+}
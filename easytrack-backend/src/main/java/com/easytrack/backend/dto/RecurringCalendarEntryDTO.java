@@ -0,0 +1,22 @@
+package com.easytrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringCalendarEntryDTO {
+    private Long recurringTransactionId;
+    private LocalDate date;
+    private String title;
+    private String type; // INCOME or EXPENSE
+    private BigDecimal amount;
+    private String frequency;
+    private Long accountId;
+    private Long categoryId;
+}
@@ -0,0 +1,43 @@
+package com.easytrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportDTO {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal totalIncome;
+    private BigDecimal totalExpense;
+    private BigDecimal netIncome;
+    private long transactionCount;
+    private List<MonthTotal> months;
+    private List<CategoryTotal> categories;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthTotal {
+        private String month; // yyyy-MM
+        private BigDecimal income;
+        private BigDecimal expense;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryTotal {
+        private Long categoryId;
+        private String categoryName;
+        private BigDecimal income;
+        private BigDecimal expense;
+    }
+}
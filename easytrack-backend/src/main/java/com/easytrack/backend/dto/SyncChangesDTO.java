@@ -0,0 +1,30 @@
+package com.easytrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChangesDTO {
+
+    private String token; // pass as ?since= on the next call
+    private boolean hasMore;
+    private List<TransactionDTO> transactions;
+    private List<AccountDTO> accounts;
+    private List<CategoryDTO> categories;
+    private List<BudgetDTO> budgets;
+    private List<RecurringTransactionDTO> recurringTransactions;
+    private List<Tombstone> deleted;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tombstone {
+        private String type;
+        private Long id;
+    }
+}
@@ -0,0 +1,14 @@
+package com.easytrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStreamEventDTO {
+    private Long id;
+    private String operation; // UPSERT or DELETE
+    private TransactionDTO transaction; // null for DELETE
+}
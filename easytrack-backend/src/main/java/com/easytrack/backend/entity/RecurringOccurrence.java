@@ -0,0 +1,49 @@
+package com.easytrack.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "recurring_occurrences",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_recurring_occurrence",
+                columnNames = {"recurring_transaction_id", "occurrence_date"}
+        )
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringOccurrence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_occurrences_seq")
+    @SequenceGenerator(name = "recurring_occurrences_seq", sequenceName = "recurring_occurrences_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recurring_transaction_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private RecurringTransaction recurringTransaction;
+
+    @Column(name = "occurrence_date", nullable = false)
+    private LocalDate occurrenceDate;
+
+    // Kept as a marker even if the generated transaction is later deleted by the user
+    // (TransactionService clears the reference; transactions cannot be a foreign key target)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id")
+    private Transaction transaction;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
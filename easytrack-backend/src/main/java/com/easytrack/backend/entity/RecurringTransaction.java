@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class RecurringTransaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_transactions_seq")
+    @SequenceGenerator(name = "recurring_transactions_seq", sequenceName = "recurring_transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
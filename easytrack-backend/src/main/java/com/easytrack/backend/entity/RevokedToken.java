@@ -0,0 +1,33 @@
+package com.easytrack.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "revoked_tokens",
+        indexes = @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    // jti of the revoked access token
+    @Id
+    @Column(length = 36)
+    private String tokenId;
+
+    // Expiry of the access token; after that the row is no longer needed
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "revoked_at", nullable = false, updatable = false)
+    private LocalDateTime revokedAt;
+}
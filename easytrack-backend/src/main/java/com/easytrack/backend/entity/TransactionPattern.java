@@ -0,0 +1,85 @@
+package com.easytrack.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "transaction_patterns",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_transaction_pattern",
+                columnNames = {"user_id", "type", "amount", "normalized_description"}
+        )
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPattern {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_patterns_seq")
+    @SequenceGenerator(name = "transaction_patterns_seq", sequenceName = "transaction_patterns_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "normalized_description", nullable = false, length = 255)
+    private String normalizedDescription;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Transaction.TransactionType type;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    // Most recent raw description, account and category seen for this group
+    @Column(length = 500)
+    private String sampleDescription;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id")
+    private Account account;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category;
+
+    @Column(nullable = false)
+    private Integer occurrences = 0;
+
+    @Column(nullable = false)
+    private LocalDate firstDate;
+
+    @Column(nullable = false)
+    private LocalDate lastDate;
+
+    // Running mean and sum of squared deviations of the day gaps (Welford)
+    @Column(nullable = false)
+    private Double intervalMean = 0.0;
+
+    @Column(nullable = false)
+    private Double intervalM2 = 0.0;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private RecurringTransaction.Frequency suggestedFrequency;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
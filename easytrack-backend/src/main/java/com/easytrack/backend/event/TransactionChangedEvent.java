@@ -0,0 +1,24 @@
+package com.easytrack.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class TransactionChangedEvent {
+
+    private final Long transactionId;
+    private final Long userId;
+    private final ChangeType changeType;
+    private final LocalDate transactionDate;
+    // Date before an update, so listeners keyed by date can refresh the period the row left
+    private final LocalDate previousTransactionDate;
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
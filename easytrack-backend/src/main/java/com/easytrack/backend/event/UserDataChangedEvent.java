@@ -0,0 +1,13 @@
+package com.easytrack.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published once per user and transaction when the user's data version is bumped
+@Getter
+@AllArgsConstructor
+public class UserDataChangedEvent {
+
+    private final Long userId;
+    private final long version;
+}
@@ -0,0 +1,16 @@
+package com.easytrack.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Published after a user's rows have moved to another shard and the directory points there
+@Getter
+@AllArgsConstructor
+public class UserShardMovedEvent {
+
+    private final Long userId;
+    private final int shard;
+    private final List<Long> recurringTransactionIds;
+}
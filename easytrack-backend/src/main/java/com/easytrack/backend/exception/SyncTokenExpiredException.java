@@ -0,0 +1,7 @@
+package com.easytrack.backend.exception;
+
+public class SyncTokenExpiredException extends RuntimeException {
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -3,11 +3,31 @@ package com.easytrack.backend.mapper;
 import com.easytrack.backend.dto.AccountDTO;
 import com.easytrack.backend.entity.Account;
 import com.easytrack.backend.entity.User;
+import com.easytrack.backend.util.FieldSelection;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Component
 public class AccountMapper {
 
+    // Properties selectable with ?fields= and their columns
+    public static final List<FieldSelection.Field> SPARSE_FIELDS = List.of(
+            new FieldSelection.Field("id", "id", Long.class),
+            new FieldSelection.Field("userId", "user_id", Long.class),
+            new FieldSelection.Field("name", "name", String.class),
+            new FieldSelection.Field("type", "type", String.class),
+            new FieldSelection.Field("balance", "balance", BigDecimal.class),
+            new FieldSelection.Field("currency", "currency", String.class),
+            new FieldSelection.Field("icon", "icon", String.class),
+            new FieldSelection.Field("color", "color", String.class),
+            new FieldSelection.Field("isActive", "is_active", Boolean.class),
+            new FieldSelection.Field("createdAt", "created_at", LocalDateTime.class),
+            new FieldSelection.Field("updatedAt", "updated_at", LocalDateTime.class)
+    );
+
     public AccountDTO toDTO(Account account) {
         if (account == null) return null;
 
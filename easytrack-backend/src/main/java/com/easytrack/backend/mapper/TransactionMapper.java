@@ -5,11 +5,33 @@ import com.easytrack.backend.entity.Account;
 import com.easytrack.backend.entity.Category;
 import com.easytrack.backend.entity.Transaction;
 import com.easytrack.backend.entity.User;
+import com.easytrack.backend.util.FieldSelection;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Component
 public class TransactionMapper {
 
+    // Properties selectable with ?fields= and their columns
+    public static final List<FieldSelection.Field> SPARSE_FIELDS = List.of(
+            new FieldSelection.Field("id", "id", Long.class),
+            new FieldSelection.Field("userId", "user_id", Long.class),
+            new FieldSelection.Field("accountId", "account_id", Long.class),
+            new FieldSelection.Field("categoryId", "category_id", Long.class),
+            new FieldSelection.Field("type", "type", String.class),
+            new FieldSelection.Field("amount", "amount", BigDecimal.class),
+            new FieldSelection.Field("transactionDate", "transaction_date", LocalDate.class),
+            new FieldSelection.Field("description", "description", String.class),
+            new FieldSelection.Field("notes", "notes", String.class),
+            new FieldSelection.Field("receiptUrl", "receipt_url", String.class),
+            new FieldSelection.Field("createdAt", "created_at", LocalDateTime.class),
+            new FieldSelection.Field("updatedAt", "updated_at", LocalDateTime.class)
+    );
+
     public TransactionDTO toDTO(Transaction transaction) {
         if (transaction == null) return null;
 
@@ -0,0 +1,31 @@
+package com.easytrack.backend.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Pinning sites recorded by VirtualThreadPinningMonitor; the "virtual-threads" profile exposes
+// it over JMX only
+@Component
+@Endpoint(id = "pinning")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "monitoring.pinning.enabled", havingValue = "true")
+public class PinningEndpoint {
+
+    private final VirtualThreadPinningMonitor monitor;
+
+    @ReadOperation
+    public Map<String, Object> pinning() {
+        return monitor.getSummary();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        monitor.reset();
+    }
+}
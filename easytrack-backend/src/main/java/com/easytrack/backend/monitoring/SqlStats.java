@@ -0,0 +1,43 @@
+package com.easytrack.backend.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// SQL activity of one HTTP request. Only touched by the request thread.
+public class SqlStats {
+
+    private int statements;
+    private long rows;
+    private long elapsedMillis;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    void recordStatement(String sql, long elapsed) {
+        statements++;
+        elapsedMillis += elapsed;
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    void recordRows(long count) {
+        rows += count;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // The statement executed most often, if it ran at least threshold times
+    public Optional<Map.Entry<String, Integer>> mostRepeated(int threshold) {
+        return executionsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .max(Map.Entry.comparingByValue());
+    }
+}
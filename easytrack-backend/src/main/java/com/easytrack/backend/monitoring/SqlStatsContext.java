@@ -0,0 +1,44 @@
+package com.easytrack.backend.monitoring;
+
+// Thread-bound state shared by the filter, the repository aspect and the datasource listener
+public final class SqlStatsContext {
+
+    private static final ThreadLocal<SqlStats> REQUEST_STATS = new ThreadLocal<>();
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+
+    private SqlStatsContext() {
+    }
+
+    static SqlStats begin() {
+        SqlStats stats = new SqlStats();
+        REQUEST_STATS.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        REQUEST_STATS.remove();
+    }
+
+    static SqlStats current() {
+        return REQUEST_STATS.get();
+    }
+
+    static String repositoryMethod() {
+        return REPOSITORY_METHOD.get();
+    }
+
+    // Returns the previous value so nested repository calls keep the outermost method
+    static String enterRepositoryMethod(String method) {
+        String previous = REPOSITORY_METHOD.get();
+        if (previous == null) {
+            REPOSITORY_METHOD.set(method);
+        }
+        return previous;
+    }
+
+    static void exitRepositoryMethod(String previous) {
+        if (previous == null) {
+            REPOSITORY_METHOD.remove();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.easytrack.backend.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Collects the SQL of each request (including the security filters) and publishes
+// statements, rows and time per endpoint as http.server.requests.sql.* metrics
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+
+    public SqlStatsFilter(MeterRegistry meterRegistry,
+                          @Value("${sql.instrumentation.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        SqlStats stats = SqlStatsContext.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatsContext.end();
+            publish(request, stats);
+        }
+    }
+
+    private void publish(HttpServletRequest request, SqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tags("uri", uri, "method", method)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .tags("uri", uri, "method", method)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("http.server.requests.sql.time")
+                .tags("uri", uri, "method", method)
+                .register(meterRegistry)
+                .record(stats.getElapsedMillis(), TimeUnit.MILLISECONDS);
+
+        stats.mostRepeated(nPlusOneThreshold).ifPresent(repeated -> {
+            meterRegistry.counter("http.server.requests.sql.repeated", "uri", uri, "method", method).increment();
+            log.warn("Possible N+1 in {} {}: same statement executed {} times: {}",
+                    method, uri, repeated.getValue(), SqlStatsListener.redact(repeated.getKey()));
+        });
+
+        log.debug("{} {}: {} statements, {} rows, {} ms in SQL",
+                method, uri, stats.getStatements(), stats.getRows(), stats.getElapsedMillis());
+    }
+}
@@ -0,0 +1,119 @@
+package com.easytrack.backend.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Receives every statement from the proxied datasource. Counts go to the current request's
+// SqlStats and to per-repository-method metrics; slow statements are logged without values.
+@Slf4j
+@Component
+public class SqlStatsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String NO_REPOSITORY = "none";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Duration slowQueryThreshold;
+
+    public SqlStatsListener(ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${sql.instrumentation.slow-query-threshold:200ms}") Duration slowQueryThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStats stats = SqlStatsContext.current();
+        String repositoryMethod = SqlStatsContext.repositoryMethod();
+        long elapsed = execInfo.getElapsedTime();
+        long affectedRows = affectedRows(execInfo.getResult());
+
+        for (QueryInfo query : queryInfoList) {
+            if (stats != null) {
+                stats.recordStatement(query.getQuery(), elapsed);
+            }
+        }
+        if (stats != null) {
+            stats.recordRows(affectedRows);
+        }
+
+        String method = repositoryMethod != null ? repositoryMethod : NO_REPOSITORY;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Counter.builder("sql.statements")
+                    .tag("repository.method", method)
+                    .register(registry)
+                    .increment(queryInfoList.size());
+            Timer.builder("sql.time")
+                    .tag("repository.method", method)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.MILLISECONDS);
+        }
+
+        if (elapsed >= slowQueryThreshold.toMillis()) {
+            queryInfoList.forEach(query -> log.warn("Slow query ({} ms, {}): {}",
+                    elapsed, method, redact(query.getQuery())));
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    // Rows read are counted as the result sets are consumed
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            SqlStats stats = SqlStatsContext.current();
+            if (stats != null) {
+                stats.recordRows(1);
+            }
+        }
+    }
+
+    // Prepared statements only carry placeholders; literals in plain statements are masked too
+    static String redact(String sql) {
+        String masked = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMERIC_LITERAL.matcher(masked).replaceAll("?");
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(0, count);
+        }
+        if (result instanceof Long count) {
+            return Math.max(0, count);
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+            return total;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,167 @@
+package com.easytrack.backend.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Listens for the JFR jdk.VirtualThreadPinned event: a virtual thread that blocked while it could
+// not unmount, typically inside synchronized code (the MySQL driver, a synchronized cache) or a
+// native frame. Each distinct pinning site is logged once with its stack and counted; the
+// "pinning" endpoint lists the sites by total pinned time.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "monitoring.pinning.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.easytrack.";
+
+    public static final class Site {
+        private final String stack;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Site(String stack) {
+            this.stack = stack;
+        }
+
+        public Map<String, Object> describe() {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("count", count.get());
+            description.put("totalMillis", Duration.ofNanos(totalNanos.get()).toMillis());
+            description.put("maxMillis", Duration.ofNanos(maxNanos.get()).toMillis());
+            description.put("stack", stack);
+            return description;
+        }
+    }
+
+    private final Duration threshold;
+    private final int stackDepth;
+    private final int maxSites;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private RecordingStream recording;
+    private Timer pinnedTimer;
+
+    public VirtualThreadPinningMonitor(@Value("${monitoring.pinning.threshold:20ms}") Duration threshold,
+                                       @Value("${monitoring.pinning.stack-depth:12}") int stackDepth,
+                                       @Value("${monitoring.pinning.max-sites:200}") int maxSites,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this.threshold = threshold;
+        this.stackDepth = stackDepth;
+        this.maxSites = maxSites;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+                    .description("Time virtual threads spent blocked while pinned to their carrier")
+                    .register(registry);
+        }
+        recording = new RecordingStream();
+        recording.enable(EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(EVENT, this::onPinned);
+        recording.startAsync();
+        log.info("Watching for virtual threads pinned longer than {}", threshold);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        Duration duration = event.getDuration();
+        if (pinnedTimer != null) {
+            pinnedTimer.record(duration);
+        }
+
+        List<RecordedFrame> frames = event.getStackTrace() != null
+                ? event.getStackTrace().getFrames()
+                : List.of();
+        String key = siteOf(frames);
+        // Events arrive one at a time on the recording stream's thread
+        Site site = sites.get(key);
+        if (site == null) {
+            if (sites.size() >= maxSites) {
+                dropped.incrementAndGet();
+                return;
+            }
+            site = new Site(format(event.getStackTrace()));
+            sites.put(key, site);
+            log.warn("Virtual thread pinned for {} ms at {}:\n{}", duration.toMillis(), key, site.stack);
+        }
+        long nanos = duration.toNanos();
+        site.count.incrementAndGet();
+        site.totalNanos.addAndGet(nanos);
+        site.maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // The innermost application frame names the site; pinning entirely inside library code
+    // (a pool housekeeping thread) falls back to the top frame
+    private static String siteOf(List<RecordedFrame> frames) {
+        RecordedFrame site = frames.stream()
+                .filter(frame -> frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(frames.isEmpty() ? null : frames.get(0));
+        return site != null ? frameName(site) : "unknown";
+    }
+
+    private String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(stackDepth)
+                .map(frame -> "\tat " + frameName(frame))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("threshold", threshold.toString());
+        summary.put("droppedSites", dropped.get());
+        summary.put("sites", sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Site> entry) -> entry.getValue().totalNanos.get())
+                        .reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().describe(),
+                        (a, b) -> a, LinkedHashMap::new)));
+        return summary;
+    }
+
+    public void reset() {
+        sites.clear();
+        dropped.set(0);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
@@ -4,11 +4,13 @@ import com.easytrack.backend.entity.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByUserId(Long userId);
+    List<Account> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
     List<Account> findByUserIdAndIsActive(Long userId, Boolean isActive);
     List<Account> findByUserIdAndType(Long userId, Account.AccountType type);
 }
\ No newline at end of file
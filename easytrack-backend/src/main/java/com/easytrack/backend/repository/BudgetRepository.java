@@ -5,12 +5,14 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     List<Budget> findByUserId(Long userId);
+    List<Budget> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
     List<Budget> findByUserIdAndIsActive(Long userId, Boolean isActive);
     List<Budget> findByUserIdAndCategoryId(Long userId, Long categoryId);
 
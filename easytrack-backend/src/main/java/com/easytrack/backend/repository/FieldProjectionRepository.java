@@ -0,0 +1,33 @@
+package com.easytrack.backend.repository;
+
+import com.easytrack.backend.util.FieldSelection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+// Sparse-fieldset reads: the same row sets as the list queries in TransactionRepository and
+// AccountRepository, selecting only the requested columns
+@Repository
+@RequiredArgsConstructor
+public class FieldProjectionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Hot partitions plus transactions_archive, like the findHistory* queries
+    public List<Map<String, Object>> findTransactionHistory(FieldSelection fields, String condition, Object... args) {
+        Object[] bothHalves = new Object[args.length * 2];
+        System.arraycopy(args, 0, bothHalves, 0, args.length);
+        System.arraycopy(args, 0, bothHalves, args.length, args.length);
+        return jdbcTemplate.query("SELECT " + fields.columns() + " FROM transactions WHERE " + condition
+                        + " UNION ALL SELECT " + fields.columns() + " FROM transactions_archive WHERE " + condition,
+                fields::mapRow, bothHalves);
+    }
+
+    public List<Map<String, Object>> findAccounts(FieldSelection fields, String condition, Object... args) {
+        return jdbcTemplate.query("SELECT " + fields.columns() + " FROM accounts WHERE " + condition,
+                fields::mapRow, args);
+    }
+}
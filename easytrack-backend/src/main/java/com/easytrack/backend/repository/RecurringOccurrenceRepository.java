@@ -0,0 +1,21 @@
+package com.easytrack.backend.repository;
+
+import com.easytrack.backend.entity.RecurringOccurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface RecurringOccurrenceRepository extends JpaRepository<RecurringOccurrence, Long> {
+
+    // transactions is partitioned and cannot be referenced by a foreign key, so this replaces ON DELETE SET NULL
+    @Modifying
+    @Query("UPDATE RecurringOccurrence o SET o.transaction = NULL WHERE o.transaction.id = :transactionId")
+    int detachTransaction(@Param("transactionId") Long transactionId);
+
+    boolean existsByRecurringTransactionIdAndOccurrenceDate(Long recurringTransactionId, LocalDate occurrenceDate);
+}
@@ -1,17 +1,45 @@
 package com.easytrack.backend.repository;
 
 import com.easytrack.backend.entity.RecurringTransaction;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecurringTransactionRepository extends JpaRepository<RecurringTransaction, Long> {
     List<RecurringTransaction> findByUserId(Long userId);
+    List<RecurringTransaction> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
     List<RecurringTransaction> findByUserIdAndIsActive(Long userId, Boolean isActive);
     List<RecurringTransaction> findByUserIdAndType(Long userId, String type);
 
     List<RecurringTransaction> findByIsActiveTrueAndNextOccurrenceLessThanEqual(LocalDate date);
-}
\ No newline at end of file
+
+    @Query("SELECT r.id AS id, r.nextOccurrence AS nextOccurrence FROM RecurringTransaction r " +
+            "WHERE r.isActive = true AND r.nextOccurrence IS NOT NULL")
+    List<ScheduledOccurrence> findActiveSchedules();
+
+    @Query("SELECT r.id FROM RecurringTransaction r WHERE r.isActive = true AND r.nextOccurrence <= :date " +
+            "AND MOD(r.id, :partitions) = :partition")
+    List<Long> findDueIdsByPartition(
+            @Param("date") LocalDate date,
+            @Param("partitions") int partitions,
+            @Param("partition") int partition
+    );
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringTransaction r WHERE r.id = :id")
+    Optional<RecurringTransaction> findByIdForUpdate(@Param("id") Long id);
+
+    interface ScheduledOccurrence {
+        Long getId();
+        LocalDate getNextOccurrence();
+    }
+}
@@ -0,0 +1,33 @@
+package com.easytrack.backend.repository;
+
+import com.easytrack.backend.entity.Transaction;
+import com.easytrack.backend.entity.TransactionPattern;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TransactionPatternRepository extends JpaRepository<TransactionPattern, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TransactionPattern> findByUserIdAndTypeAndAmountAndNormalizedDescription(
+            Long userId,
+            Transaction.TransactionType type,
+            BigDecimal amount,
+            String normalizedDescription
+    );
+
+    List<TransactionPattern> findByUserIdAndSuggestedFrequencyIsNotNull(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM TransactionPattern p WHERE p.user.id = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
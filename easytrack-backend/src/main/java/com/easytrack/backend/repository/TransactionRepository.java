@@ -1,6 +1,7 @@
 package com.easytrack.backend.repository;
 
 import com.easytrack.backend.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,7 +9,10 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -23,6 +27,85 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             LocalDate endDate
     );
 
+    // History reads: hot partitions plus transactions_archive. Archived rows are read-only.
+    @Query(value = "SELECT * FROM transactions WHERE user_id = :userId " +
+            "UNION ALL SELECT * FROM transactions_archive WHERE user_id = :userId", nativeQuery = true)
+    List<Transaction> findHistoryByUserId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT * FROM transactions WHERE user_id = :userId AND type = :type " +
+            "UNION ALL SELECT * FROM transactions_archive WHERE user_id = :userId AND type = :type", nativeQuery = true)
+    List<Transaction> findHistoryByUserIdAndType(@Param("userId") Long userId, @Param("type") String type);
+
+    @Query(value = "SELECT * FROM transactions WHERE user_id = :userId AND account_id = :accountId " +
+            "UNION ALL SELECT * FROM transactions_archive WHERE user_id = :userId AND account_id = :accountId",
+            nativeQuery = true)
+    List<Transaction> findHistoryByUserIdAndAccountId(@Param("userId") Long userId, @Param("accountId") Long accountId);
+
+    @Query(value = "SELECT * FROM transactions WHERE user_id = :userId AND category_id = :categoryId " +
+            "UNION ALL SELECT * FROM transactions_archive WHERE user_id = :userId AND category_id = :categoryId",
+            nativeQuery = true)
+    List<Transaction> findHistoryByUserIdAndCategoryId(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    @Query(value = "SELECT * FROM transactions WHERE id = :id " +
+            "UNION ALL SELECT * FROM transactions_archive WHERE id = :id LIMIT 1", nativeQuery = true)
+    Optional<Transaction> findHistoryById(@Param("id") Long id);
+
+    @Query(value = "SELECT COUNT(*) FROM transactions_archive WHERE id = :id", nativeQuery = true)
+    long countArchivedById(@Param("id") Long id);
+
+    @Query(value = "SELECT * FROM transactions WHERE user_id = :userId AND id IN (:ids) " +
+            "UNION ALL SELECT * FROM transactions_archive WHERE user_id = :userId AND id IN (:ids)", nativeQuery = true)
+    List<Transaction> findHistoryByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // The date bounds prune both the hot partitions and the archive index range
+    @Query(value = "SELECT * FROM transactions WHERE user_id = :userId " +
+            "AND transaction_date BETWEEN :startDate AND :endDate " +
+            "UNION ALL SELECT * FROM transactions_archive WHERE user_id = :userId " +
+            "AND transaction_date BETWEEN :startDate AND :endDate", nativeQuery = true)
+    List<Transaction> findHistoryByUserIdAndDateRange(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query(value = "SELECT SUM(amount) FROM (" +
+            "SELECT amount FROM transactions WHERE user_id = :userId AND type = :type " +
+            "AND transaction_date BETWEEN :startDate AND :endDate " +
+            "UNION ALL SELECT amount FROM transactions_archive WHERE user_id = :userId AND type = :type " +
+            "AND transaction_date BETWEEN :startDate AND :endDate) history", nativeQuery = true)
+    BigDecimal sumHistoryByUserIdAndTypeAndDateRange(
+            @Param("userId") Long userId,
+            @Param("type") String type,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query(value = "SELECT (SELECT COUNT(*) FROM transactions WHERE account_id = :accountId) " +
+            "+ (SELECT COUNT(*) FROM transactions_archive WHERE account_id = :accountId)", nativeQuery = true)
+    long countHistoryByAccountId(@Param("accountId") Long accountId);
+
+    @Query(value = "SELECT (SELECT COUNT(*) FROM transactions WHERE category_id = :categoryId) " +
+            "+ (SELECT COUNT(*) FROM transactions_archive WHERE category_id = :categoryId)", nativeQuery = true)
+    long countHistoryByCategoryId(@Param("categoryId") Long categoryId);
+
+    // Keyset page in (transactionDate, id) order, for scans over a user's full history
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId " +
+            "AND (t.transactionDate > :afterDate OR (t.transactionDate = :afterDate AND t.id > :afterId)) " +
+            "ORDER BY t.transactionDate ASC, t.id ASC")
+    List<Transaction> findPageByUserIdAfter(
+            @Param("userId") Long userId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.createdAt >= :since " +
+            "ORDER BY t.transactionDate ASC, t.id ASC")
+    List<Transaction> findByUserIdCreatedSince(
+            @Param("userId") Long userId,
+            @Param("since") LocalDateTime since
+    );
+
     @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId " +
             "AND t.type = :type AND t.transactionDate BETWEEN :startDate AND :endDate")
     BigDecimal sumByUserIdAndTypeAndDateRange(
@@ -2,8 +2,11 @@ package com.easytrack.backend.repository;
 
 import com.easytrack.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +14,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     Optional<User> findByOauthProviderAndOauthId(String oauthProvider, String oauthId);
+
+    @Query("SELECT u.isActive FROM User u WHERE u.id = :id")
+    Optional<Boolean> findIsActiveById(@Param("id") Long id);
+
+    @Query("SELECT u.id FROM User u WHERE MOD(u.id, :partitions) = :partition ORDER BY u.id")
+    List<Long> findIdsByPartition(@Param("partitions") int partitions, @Param("partition") int partition);
 }
\ No newline at end of file
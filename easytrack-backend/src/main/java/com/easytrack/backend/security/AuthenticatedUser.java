@@ -0,0 +1,21 @@
+package com.easytrack.backend.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+// Principal built from verified token claims, so identifying the caller needs no database lookup
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal, Serializable {
+
+    private final Long id;
+    private final String email;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
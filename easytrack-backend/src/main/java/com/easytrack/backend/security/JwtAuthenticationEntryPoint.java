@@ -0,0 +1,31 @@
+package com.easytrack.backend.security;
+
+import com.easytrack.backend.exception.UnauthorizedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+// Requests without a usable token (missing, expired, revoked) get 401 rather than the default 403,
+// which is what tells the client to renew its access token with the refresh token
+@Component
+public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public JwtAuthenticationEntryPoint(@Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) {
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        handlerExceptionResolver.resolveException(request, response, null,
+                new UnauthorizedException("Authentication required"));
+    }
+}
@@ -1,26 +1,50 @@
 package com.easytrack.backend.security;
 
+import com.easytrack.backend.config.ShardContext;
+import com.easytrack.backend.config.ShardRouter;
+import com.easytrack.backend.entity.User;
+import com.easytrack.backend.exception.ServiceUnavailableException;
+import com.easytrack.backend.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   UserStatusCache userStatusCache,
+                                   TokenRevocationList tokenRevocationList,
+                                   UserRepository userRepository,
+                                   ShardRouter shardRouter,
+                                   @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+        this.jwtUtil = jwtUtil;
+        this.userStatusCache = userStatusCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -28,29 +52,58 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String email = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                email = jwtUtil.extractEmail(jwt);
-            } catch (Exception e) {
+                // Signature, expiry and parsing are done once per token
+                claims = jwtUtil.verifyToken(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
                 // Token is invalid
             }
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
+        if (claims != null && claims.getSubject() != null
+                && !tokenRevocationList.isRevoked(jwtUtil.extractTokenId(claims))
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser principal = toPrincipal(claims);
 
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+            if (principal != null) {
+                // Everything the request does from here on runs against the user's shard
+                try {
+                    shardRouter.bindUser(principal.getId());
+                } catch (ServiceUnavailableException e) {
+                    handlerExceptionResolver.resolveException(request, response, null, e);
+                    return;
+                }
+            }
+
+            if (principal != null && userStatusCache.isActive(principal.getId())) {
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                                principal, null, Collections.emptyList());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
         }
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private AuthenticatedUser toPrincipal(Claims claims) {
+        Long userId = jwtUtil.extractUserId(claims);
+        if (userId != null) {
+            return new AuthenticatedUser(userId, claims.getSubject());
+        }
+
+        // Tokens issued before the user id claim existed; they age out with the token lifetime
+        return userRepository.findByEmail(claims.getSubject())
+                .map(User::getId)
+                .map(id -> new AuthenticatedUser(id, claims.getSubject()))
+                .orElse(null);
     }
 }
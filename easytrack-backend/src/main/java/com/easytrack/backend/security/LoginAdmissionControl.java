@@ -0,0 +1,151 @@
+package com.easytrack.backend.security;
+
+import com.easytrack.backend.exception.BadRequestException;
+import com.easytrack.backend.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Password hashing is deliberately expensive, so login attempts are throttled per client
+// address, and verified on a small dedicated pool. When the pool and its queue are full,
+// attempts are rejected straight away instead of taking request threads. Failed passwords are
+// also counted per account, whatever address they come from, so guessing spread over many
+// addresses is still throttled; only failures count, so a correct password is never refused
+// while the account has budget left.
+@Slf4j
+@Component
+public class LoginAdmissionControl {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final long ipCapacity;
+    private final double ipRefillPerSecond;
+    private final long accountCapacity;
+    private final double accountRefillPerSecond;
+
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> accountBuckets;
+
+    public LoginAdmissionControl(@Value("${security.login.threads:0}") int threads,
+                                 @Value("${security.login.queue-capacity:64}") int queueCapacity,
+                                 @Value("${security.login.timeout:5s}") Duration timeout,
+                                 @Value("${security.login.ip.capacity:20}") long ipCapacity,
+                                 @Value("${security.login.ip.refill-per-minute:10}") double ipRefillPerMinute,
+                                 @Value("${security.login.account.capacity:5}") long accountCapacity,
+                                 @Value("${security.login.account.refill-per-minute:1}") double accountRefillPerMinute,
+                                 @Value("${security.login.max-tracked-keys:100000}") long maxTrackedKeys) {
+        // Default to half the cores so hashing can never take over the whole machine
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipRefillPerMinute / 60d;
+        this.accountCapacity = accountCapacity;
+        this.accountRefillPerSecond = accountRefillPerMinute / 60d;
+
+        // Idle buckets are dropped once they would have refilled completely anyway
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(refillTime(ipCapacity, ipRefillPerSecond))
+                .build();
+        this.accountBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(refillTime(accountCapacity, accountRefillPerSecond))
+                .build();
+    }
+
+    public <T> T verify(String clientIp, String email, Callable<T> verification) {
+        acquire(ipBuckets, clientIp, ipCapacity, ipRefillPerSecond, "Too many login attempts from this address");
+        // Only checked here; recordFailure takes the token once the password turned out wrong
+        TokenBucket accountBucket = accountBuckets.getIfPresent(accountKey(email));
+        long accountWaitNanos = accountBucket != null ? accountBucket.nanosUntilAvailable() : 0;
+        if (accountWaitNanos > 0) {
+            throw throttled("Too many failed login attempts for this account", accountWaitNanos);
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(verification);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Login service is busy, please try again shortly", 1);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Cancelling only stops an attempt that is still queued. BCrypt does not check for
+            // interrupts, so a hash already running finishes on its worker; at most one hash per
+            // worker outlives its request, and the bounded queue turns the overflow away.
+            future.cancel(false);
+            throw new TooManyRequestsException("Login service is busy, please try again shortly", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BadRequestException("Login was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Called by the verification when the password did not match
+    public void recordFailure(String email) {
+        accountBuckets.get(accountKey(email), k -> new TokenBucket(accountCapacity, accountRefillPerSecond))
+                .tryConsume();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void acquire(Cache<String, TokenBucket> buckets, String key, long capacity,
+                         double refillPerSecond, String message) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, refillPerSecond));
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            throw throttled(message, waitNanos);
+        }
+    }
+
+    private static TooManyRequestsException throttled(String message, long waitNanos) {
+        log.debug("Login throttled: {}", message);
+        return new TooManyRequestsException(message, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+    }
+
+    private static String accountKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static Duration refillTime(long capacity, double refillPerSecond) {
+        return Duration.ofMillis((long) Math.ceil(capacity / refillPerSecond * 1000));
+    }
+}
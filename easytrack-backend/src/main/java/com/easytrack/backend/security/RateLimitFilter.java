@@ -0,0 +1,169 @@
+package com.easytrack.backend.security;
+
+import com.easytrack.backend.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Per-user request budget, plus a budget per user and route. Runs after JWT authentication;
+// anonymous requests are not limited here (login has its own throttling).
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final String UNMATCHED_ROUTE = "(unmatched)";
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final HandlerMapping handlerMapping;
+    private final boolean enabled;
+
+    private final long userCapacity;
+    private final double userRefillPerSecond;
+    private final long routeCapacity;
+    private final double routeRefillPerSecond;
+    private final long heavyRouteCapacity;
+    private final double heavyRouteRefillPerSecond;
+    private final Set<String> heavyRoutes;
+
+    private final Cache<Long, TokenBucket> userBuckets;
+    private final Cache<String, TokenBucket> routeBuckets;
+    private final Cache<String, String> routes;
+
+    public RateLimitFilter(@Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver,
+                           @Qualifier("requestMappingHandlerMapping") HandlerMapping handlerMapping,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.user.capacity:120}") long userCapacity,
+                           @Value("${rate-limit.user.refill-per-second:20}") double userRefillPerSecond,
+                           @Value("${rate-limit.route.capacity:60}") long routeCapacity,
+                           @Value("${rate-limit.route.refill-per-second:10}") double routeRefillPerSecond,
+                           @Value("${rate-limit.heavy-route.capacity:10}") long heavyRouteCapacity,
+                           @Value("${rate-limit.heavy-route.refill-per-second:0.5}") double heavyRouteRefillPerSecond,
+                           @Value("${rate-limit.heavy-routes:GET /api/transactions,GET /api/transactions/user/{userId}}") Set<String> heavyRoutes,
+                           @Value("${rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                           @Value("${rate-limit.max-tracked-keys:100000}") long maxTrackedKeys,
+                           @Value("${rate-limit.route-cache-size:10000}") long routeCacheSize) {
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.handlerMapping = handlerMapping;
+        this.enabled = enabled;
+        this.userCapacity = userCapacity;
+        this.userRefillPerSecond = userRefillPerSecond;
+        this.routeCapacity = routeCapacity;
+        this.routeRefillPerSecond = routeRefillPerSecond;
+        this.heavyRouteCapacity = heavyRouteCapacity;
+        this.heavyRouteRefillPerSecond = heavyRouteRefillPerSecond;
+        this.heavyRoutes = heavyRoutes;
+
+        // Buckets of idle users are evicted; memory is capped regardless of the number of users
+        this.userBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        this.routeBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        this.routes = Caffeine.newBuilder()
+                .maximumSize(routeCacheSize)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Long userId = currentUserId();
+        if (!enabled || userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String route = route(request);
+        boolean heavy = heavyRoutes.contains(route);
+
+        TokenBucket userBucket = userBuckets.get(userId,
+                id -> new TokenBucket(userCapacity, userRefillPerSecond));
+        TokenBucket routeBucket = routeBuckets.get(userId + " " + route, key -> heavy
+                ? new TokenBucket(heavyRouteCapacity, heavyRouteRefillPerSecond)
+                : new TokenBucket(routeCapacity, routeRefillPerSecond));
+
+        // Each take is atomic; if the route budget rejects, the user token is given back, so a
+        // rejected request costs nothing and concurrent requests cannot overdraw either bucket
+        long waitNanos = userBucket.tryConsume();
+        if (waitNanos == 0) {
+            waitNanos = routeBucket.tryConsume();
+            if (waitNanos > 0) {
+                userBucket.refund();
+            }
+        }
+
+        // Report whichever budget is closer to running out
+        TokenBucket tightest = routeBucket.getAvailableTokens() < userBucket.getAvailableTokens()
+                ? routeBucket
+                : userBucket;
+        response.setHeader(LIMIT_HEADER, String.valueOf(tightest.getCapacity()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(tightest.getAvailableTokens()));
+        response.setHeader(RESET_HEADER, String.valueOf(toSeconds(tightest.nanosUntilFull())));
+
+        if (waitNanos > 0) {
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new TooManyRequestsException("Rate limit exceeded", toSeconds(waitNanos)));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    // Keyed on the handler's mapping pattern, so /api/accounts/1 and /api/accounts/2 share a budget
+    // and arbitrary paths cannot create new buckets; requests no handler matches share one route.
+    // The pattern is resolved once per method and path and then served from the cache.
+    private String route(HttpServletRequest request) {
+        String key = request.getMethod() + " " + request.getRequestURI();
+        String route = routes.getIfPresent(key);
+        if (route != null) {
+            return route;
+        }
+        Object pattern;
+        try {
+            pattern = handlerMapping.getHandler(request) != null
+                    ? request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)
+                    : null;
+        } catch (Exception e) {
+            // Media type mismatch depends on the headers, not the path; not cached, the dispatcher reports it
+            return request.getMethod() + " " + UNMATCHED_ROUTE;
+        }
+        route = request.getMethod() + " " + (pattern != null ? pattern : UNMATCHED_ROUTE);
+        routes.put(key, route);
+        return route;
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
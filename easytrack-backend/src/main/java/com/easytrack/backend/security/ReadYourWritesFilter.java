@@ -0,0 +1,69 @@
+package com.easytrack.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Any unsafe request counts as a write. The window cookie is set as late as possible - when the
+// response is about to be committed - so the window starts once the write has completed.
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        boolean write = ReadYourWritesTracker.currentUserId() != null && !SAFE_METHODS.contains(request.getMethod());
+
+        if (write || readYourWritesTracker.isSticky(request)) {
+            readYourWritesTracker.markRequestSticky(request);
+        }
+        if (!write) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        WriteResponse writeResponse = new WriteResponse(request, response);
+        try {
+            filterChain.doFilter(request, writeResponse);
+        } finally {
+            // Responses without a body are committed by the container after the filters return
+            writeResponse.markWrite();
+        }
+    }
+
+    private final class WriteResponse extends OnCommittedResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        private WriteResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            markWrite();
+        }
+
+        private void markWrite() {
+            if (!isDisableOnResponseCommitted() && !isCommitted()) {
+                disableOnResponseCommitted();
+                readYourWritesTracker.markWrite(request, (HttpServletResponse) getResponse());
+            }
+        }
+    }
+}
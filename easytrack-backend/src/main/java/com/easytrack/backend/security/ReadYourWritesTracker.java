@@ -0,0 +1,85 @@
+package com.easytrack.backend.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+// Keeps a client's reads on the primary for a short window after it wrote, so replicas can catch
+// up. The end of the window travels with the client in a cookie rather than being remembered
+// here, so it holds whichever node serves the next request.
+@Component
+public class ReadYourWritesTracker {
+
+    public static final String COOKIE_NAME = "easytrack_rw";
+
+    private static final String STICKY_ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".STICKY";
+
+    private final Duration stickyWindow;
+
+    public ReadYourWritesTracker(@Value("${datasource.replica.sticky-window:5s}") Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    // Called when a write completes: the client stays on the primary until the window ends
+    public void markWrite(HttpServletRequest request, HttpServletResponse response) {
+        long stickyUntil = System.currentTimeMillis() + stickyWindow.toMillis();
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, Long.toString(stickyUntil))
+                .path("/")
+                .maxAge(stickyWindow)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .build()
+                .toString());
+    }
+
+    // Whether the request carries an unexpired window. Values beyond one window from now were
+    // not issued here and are ignored.
+    public boolean isSticky(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long stickyUntil = Long.parseLong(cookie.getValue());
+                    return stickyUntil > now && stickyUntil <= now + stickyWindow.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    public void markRequestSticky(HttpServletRequest request) {
+        request.setAttribute(STICKY_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    // Work outside a request (schedulers, listeners) is never sticky
+    public boolean isCurrentRequestSticky() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && attributes.getAttribute(STICKY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    public static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.easytrack.backend.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free token bucket. Tokens are refilled lazily from the elapsed time on each attempt.
+public class TokenBucket {
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until one becomes available
+    public long tryConsume() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(capacity, current.tokens() + (now - current.refilledAt()) * tokensPerNano);
+
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back a token taken by tryConsume, e.g. when a second budget rejected the request
+    public void refund() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(capacity, current.tokens() + (now - current.refilledAt()) * tokensPerNano + 1);
+            if (state.compareAndSet(current, new State(tokens, now))) {
+                return;
+            }
+        }
+    }
+
+    // Like tryConsume, but leaves the bucket as it is
+    public long nanosUntilAvailable() {
+        double tokens = currentTokens();
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getAvailableTokens() {
+        return (long) currentTokens();
+    }
+
+    public long nanosUntilFull() {
+        return (long) Math.ceil((capacity - currentTokens()) / tokensPerNano);
+    }
+
+    private double currentTokens() {
+        State current = state.get();
+        return Math.min(capacity, current.tokens() + (System.nanoTime() - current.refilledAt()) * tokensPerNano);
+    }
+}
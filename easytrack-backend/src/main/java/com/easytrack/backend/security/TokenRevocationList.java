@@ -0,0 +1,108 @@
+package com.easytrack.backend.security;
+
+import com.easytrack.backend.config.ShardRouter;
+import com.easytrack.backend.entity.RevokedToken;
+import com.easytrack.backend.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Revoked access token ids, checked on every request without touching the database.
+// Only unexpired ids are held, so the set stays as small as the number of recent logouts.
+// Revocations from other nodes are picked up by polling revoked_tokens on every shard
+// (a revocation is written to the shard of the user who logged out).
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ShardRouter shardRouter;
+    private final Duration pollOverlap;
+
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastPolledAt;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               ShardRouter shardRouter,
+                               @Value("${jwt.revocation.poll-overlap:1m}") Duration pollOverlap) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.shardRouter = shardRouter;
+        this.pollOverlap = pollOverlap;
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    @Transactional
+    public void revoke(String tokenId, LocalDateTime expiresAt) {
+        if (tokenId == null || expiresAt.isBefore(LocalDateTime.now())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt, null));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(tokenId, expiresAt);
+                }
+            });
+        } else {
+            add(tokenId, expiresAt);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> active = new ArrayList<>();
+        shardRouter.forEachShard(() -> active.addAll(revokedTokenRepository.findByExpiresAtAfter(now)));
+
+        // Added before stale ids are dropped, so a revoked id is never briefly missing
+        active.forEach(token -> revoked.put(token.getTokenId(), token.getExpiresAt()));
+        revoked.keySet().retainAll(active.stream().map(RevokedToken::getTokenId).collect(Collectors.toSet()));
+        lastPolledAt = now;
+        log.info("Loaded {} revoked access tokens", active.size());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:10s}")
+    public void poll() {
+        if (lastPolledAt == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        // Overlap the window so clock differences between nodes cannot hide a revocation
+        LocalDateTime since = lastPolledAt.minus(pollOverlap);
+        shardRouter.forEachShard(() -> revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)
+                .forEach(token -> add(token.getTokenId(), token.getExpiresAt())));
+        lastPolledAt = now;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:1h}",
+            initialDelayString = "${jwt.revocation.purge-interval:1h}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        shardRouter.forEachShard(() -> revokedTokenRepository.deleteExpired(now));
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+
+    private void add(String tokenId, LocalDateTime expiresAt) {
+        revoked.put(tokenId, expiresAt);
+    }
+}
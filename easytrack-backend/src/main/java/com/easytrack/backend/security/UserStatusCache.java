@@ -0,0 +1,42 @@
+package com.easytrack.backend.security;
+
+import com.easytrack.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Short-lived view of whether a user may still authenticate. Deactivated or deleted users
+// are locked out within one TTL on every node, and immediately on the node that made the change.
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Cache<Long, Boolean> activeUsers;
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${security.user-status.enabled:true}") boolean enabled,
+                           @Value("${security.user-status.ttl:30s}") Duration ttl,
+                           @Value("${security.user-status.max-size:100000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.activeUsers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isActive(Long userId) {
+        if (!enabled) {
+            return true;
+        }
+        return activeUsers.get(userId, id -> userRepository.findIsActiveById(id).orElse(false));
+    }
+
+    public void invalidate(Long userId) {
+        activeUsers.invalidate(userId);
+    }
+}
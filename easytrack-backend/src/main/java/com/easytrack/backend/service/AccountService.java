@@ -1,14 +1,24 @@
 package com.easytrack.backend.service;
 
+import com.easytrack.backend.config.ShardRouter;
 import com.easytrack.backend.entity.Account;
+import com.easytrack.backend.exception.BadRequestException;
+import com.easytrack.backend.exception.InsufficientBalanceException;
 import com.easytrack.backend.exception.ResourceNotFoundException;
+import com.easytrack.backend.mapper.AccountMapper;
 import com.easytrack.backend.repository.AccountRepository;
+import com.easytrack.backend.repository.FieldProjectionRepository;
+import com.easytrack.backend.repository.TransactionRepository;
+import com.easytrack.backend.util.FieldSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -17,9 +27,17 @@ import java.util.Optional;
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ShardRouter shardRouter;
+    private final ChangeLogService changeLogService;
+    private final FieldProjectionRepository fieldProjectionRepository;
 
     public Account createAccount(Account account) {
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        changeLogService.record(saved.getUser().getId(), ChangeLogService.EntityType.ACCOUNT, saved.getId(),
+                ChangeLogService.Operation.UPSERT);
+        return saved;
     }
 
     public Optional<Account> getAccountById(Long id) {
@@ -27,7 +45,7 @@ public class AccountService {
     }
 
     public List<Account> getAllAccounts() {
-        return accountRepository.findAll();
+        return shardRouter.fanOut(accountRepository::findAll);
     }
 
     public List<Account> getAccountsByUserId(Long userId) {
@@ -38,6 +56,16 @@ public class AccountService {
         return accountRepository.findByUserIdAndIsActive(userId, true);
     }
 
+    // Sparse variants selecting only the ?fields= columns
+    public List<Map<String, Object>> getAccountsByUserId(Long userId, String fields) {
+        return fieldProjectionRepository.findAccounts(accountFields(fields), "user_id = ?", userId);
+    }
+
+    public List<Map<String, Object>> getActiveAccountsByUserId(Long userId, String fields) {
+        return fieldProjectionRepository.findAccounts(accountFields(fields),
+                "user_id = ? AND is_active = ?", userId, true);
+    }
+
     public List<Account> getAccountsByUserIdAndType(Long userId, Account.AccountType type) {
         return accountRepository.findByUserIdAndType(userId, type);
     }
@@ -54,21 +82,59 @@ public class AccountService {
         account.setColor(accountDetails.getColor());
         account.setIsActive(accountDetails.getIsActive());
 
-        return accountRepository.save(account);
+        // Flushed first so the account row is locked before the version row, the same order
+        // as transaction creates
+        Account saved = accountRepository.saveAndFlush(account);
+        changeLogService.record(saved.getUser().getId(), ChangeLogService.EntityType.ACCOUNT, id,
+                ChangeLogService.Operation.UPSERT);
+        return saved;
     }
 
     public void updateAccountBalance(Long accountId, BigDecimal amount) {
+        Account account = lockAccount(accountId);
+        applyBalanceChange(account, amount);
+    }
+
+    // Takes an expense off the balance; the check runs on the locked row, so two expenses can
+    // never both pass it against the same funds
+    public void debitAccountBalance(Long accountId, BigDecimal amount) {
+        Account account = lockAccount(accountId);
+        if (account.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientBalanceException(
+                    "Insufficient balance. Available: " + account.getBalance() +
+                            " ZAR, Required: " + amount + " ZAR"
+            );
+        }
+        applyBalanceChange(account, amount.negate());
+    }
+
+    // Re-reads and locks the row so the balance is current and concurrent updates cannot
+    // overwrite each other
+    private Account lockAccount(Long accountId) {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account", "id", accountId));
+        entityManager.refresh(account, LockModeType.PESSIMISTIC_WRITE);
+        return account;
+    }
+
+    private void applyBalanceChange(Account account, BigDecimal amount) {
         account.setBalance(account.getBalance().add(amount));
         accountRepository.save(account);
+        changeLogService.record(account.getUser().getId(), ChangeLogService.EntityType.ACCOUNT, account.getId(),
+                ChangeLogService.Operation.UPSERT);
     }
 
     public void deleteAccount(Long id) {
-        if (!accountRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Account", "id", id);
+        Account account = accountRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Account", "id", id));
+        // Transactions no longer have a foreign key to accounts (the table is partitioned)
+        if (transactionRepository.countHistoryByAccountId(id) > 0) {
+            throw new BadRequestException("Account has transactions and cannot be deleted");
         }
-        accountRepository.deleteById(id);
+        accountRepository.delete(account);
+        accountRepository.flush();
+        changeLogService.record(account.getUser().getId(), ChangeLogService.EntityType.ACCOUNT, id,
+                ChangeLogService.Operation.DELETE);
     }
 
     public BigDecimal getTotalBalance(Long userId) {
@@ -77,4 +143,8 @@ public class AccountService {
                 .map(Account::getBalance)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
+
+    private static FieldSelection accountFields(String fields) {
+        return FieldSelection.parse(fields, AccountMapper.SPARSE_FIELDS);
+    }
 }
\ No newline at end of file
@@ -1,31 +1,50 @@
 package com.easytrack.backend.service;
 
+import com.easytrack.backend.config.ShardContext;
+import com.easytrack.backend.config.ShardRouter;
 import com.easytrack.backend.dto.AuthResponse;
 import com.easytrack.backend.dto.LoginRequest;
+import com.easytrack.backend.dto.RefreshTokenRequest;
 import com.easytrack.backend.dto.RegisterRequest;
 import com.easytrack.backend.entity.User;
 import com.easytrack.backend.exception.BadRequestException;
 import com.easytrack.backend.exception.DuplicateResourceException;
 import com.easytrack.backend.repository.UserRepository;
 import com.easytrack.backend.security.JwtUtil;
+import com.easytrack.backend.security.LoginAdmissionControl;
+import com.easytrack.backend.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final LoginAdmissionControl loginAdmissionControl;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
+    private final ShardRouter shardRouter;
 
     public AuthResponse register(RegisterRequest request) {
+        shardRouter.bindNewUser(request.getEmail());
+
         // Check if user already exists
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new DuplicateResourceException("User", "email", request.getEmail());
@@ -41,45 +60,74 @@ public class AuthService {
         user.setIsActive(true);
 
         User savedUser = userRepository.save(user);
+        shardRouter.registerUser(savedUser.getId(), savedUser.getEmail());
 
-        // Generate JWT token
-        String token = jwtUtil.generateToken(savedUser.getEmail());
-
-        return new AuthResponse(
-                token,
-                savedUser.getId(),
-                savedUser.getEmail(),
-                savedUser.getFirstName(),
-                savedUser.getLastName()
-        );
+        return toResponse(savedUser, refreshTokenService.issue(savedUser.getId()));
     }
 
-    public AuthResponse login(LoginRequest request) {
-        // Authenticate user
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail(),
-                            request.getPassword()
-                    )
-            );
-        } catch (Exception e) {
-            throw new BadRequestException("Invalid email or password");
-        }
+    // No transaction here: an attempt may wait for a hashing slot and must not hold a connection meanwhile
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        shardRouter.bindEmail(request.getEmail());
+
+        // Authenticate user on the bounded login pool
+        loginAdmissionControl.verify(clientIp, request.getEmail(), ShardContext.wrap(() -> {
+            try {
+                return authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(
+                                request.getEmail(),
+                                request.getPassword()
+                        )
+                );
+            } catch (AuthenticationException e) {
+                loginAdmissionControl.recordFailure(request.getEmail());
+                throw new BadRequestException("Invalid email or password");
+            }
+        }));
 
         // Get user details
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userService.getUserByEmail(request.getEmail())
                 .orElseThrow(() -> new BadRequestException("User not found"));
 
+        return toResponse(user, refreshTokenService.issue(user.getId()));
+    }
+
+    // Exchanges a refresh token for a new access token and a new refresh token
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        shardRouter.bindUser(RefreshTokenService.userIdOf(request.getRefreshToken()));
+        RefreshTokenService.RotatedToken rotated = refreshTokenService.rotate(request.getRefreshToken());
+        return toResponse(rotated.user(), rotated.refreshToken());
+    }
+
+    public void logout(RefreshTokenRequest request, String accessToken) {
+        if (request != null && request.getRefreshToken() != null) {
+            shardRouter.bindUser(RefreshTokenService.userIdOf(request.getRefreshToken()));
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtUtil.verifyToken(accessToken);
+                tokenRevocationList.revoke(jwtUtil.extractTokenId(claims),
+                        LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Already invalid, nothing to revoke
+            }
+        }
+    }
+
+    private AuthResponse toResponse(User user, String refreshToken) {
         // Generate JWT token
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail());
 
         return new AuthResponse(
                 token,
+                refreshToken,
+                jwtUtil.getExpiration().toSeconds(),
                 user.getId(),
                 user.getEmail(),
                 user.getFirstName(),
                 user.getLastName()
         );
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.easytrack.backend.service;
 
+import com.easytrack.backend.config.ShardRouter;
 import com.easytrack.backend.entity.Budget;
 import com.easytrack.backend.exception.DuplicateResourceException;
 import com.easytrack.backend.exception.ResourceNotFoundException;
@@ -21,6 +22,8 @@ public class BudgetService {
 
     private final BudgetRepository budgetRepository;
     private final TransactionRepository transactionRepository;
+    private final ShardRouter shardRouter;
+    private final ChangeLogService changeLogService;
 
     public Budget createBudget(Budget budget) {
         // Check if budget already exists for this category and period
@@ -38,7 +41,10 @@ public class BudgetService {
         // Calculate spent amount
         updateBudgetSpent(budget);
 
-        return budgetRepository.save(budget);
+        Budget saved = budgetRepository.save(budget);
+        changeLogService.record(saved.getUser().getId(), ChangeLogService.EntityType.BUDGET, saved.getId(),
+                ChangeLogService.Operation.UPSERT);
+        return saved;
     }
 
     public Optional<Budget> getBudgetById(Long id) {
@@ -46,7 +52,7 @@ public class BudgetService {
     }
 
     public List<Budget> getAllBudgets() {
-        return budgetRepository.findAll();
+        return shardRouter.fanOut(budgetRepository::findAll);
     }
 
     public List<Budget> getBudgetsByUserId(Long userId) {
@@ -76,14 +82,20 @@ public class BudgetService {
         // Recalculate spent amount
         updateBudgetSpent(budget);
 
-        return budgetRepository.save(budget);
+        // Flushed first so the budget row is locked before the version row
+        Budget saved = budgetRepository.saveAndFlush(budget);
+        changeLogService.record(saved.getUser().getId(), ChangeLogService.EntityType.BUDGET, id,
+                ChangeLogService.Operation.UPSERT);
+        return saved;
     }
 
     public void deleteBudget(Long id) {
-        if (!budgetRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Budget", "id", id);
-        }
-        budgetRepository.deleteById(id);
+        Budget budget = budgetRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Budget", "id", id));
+        budgetRepository.delete(budget);
+        budgetRepository.flush();
+        changeLogService.record(budget.getUser().getId(), ChangeLogService.EntityType.BUDGET, id,
+                ChangeLogService.Operation.DELETE);
     }
 
     public void updateBudgetSpent(Budget budget) {
@@ -100,7 +112,9 @@ public class BudgetService {
         List<Budget> budgets = getActiveBudgetsByUserId(userId);
         budgets.forEach(budget -> {
             updateBudgetSpent(budget);
-            budgetRepository.save(budget);
+            budgetRepository.saveAndFlush(budget);
+            changeLogService.record(userId, ChangeLogService.EntityType.BUDGET, budget.getId(),
+                    ChangeLogService.Operation.UPSERT);
         });
     }
 
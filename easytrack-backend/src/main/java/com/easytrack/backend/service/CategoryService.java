@@ -1,8 +1,11 @@
 package com.easytrack.backend.service;
 
+import com.easytrack.backend.config.ShardRouter;
 import com.easytrack.backend.entity.Category;
+import com.easytrack.backend.exception.BadRequestException;
 import com.easytrack.backend.exception.ResourceNotFoundException;
 import com.easytrack.backend.repository.CategoryRepository;
+import com.easytrack.backend.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,9 +19,15 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final TransactionRepository transactionRepository;
+    private final ShardRouter shardRouter;
+    private final ChangeLogService changeLogService;
 
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        changeLogService.record(saved.getUser().getId(), ChangeLogService.EntityType.CATEGORY, saved.getId(),
+                ChangeLogService.Operation.UPSERT);
+        return saved;
     }
 
     public Optional<Category> getCategoryById(Long id) {
@@ -26,7 +35,7 @@ public class CategoryService {
     }
 
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return shardRouter.fanOut(categoryRepository::findAll);
     }
 
     public List<Category> getCategoriesByUserId(Long userId) {
@@ -50,13 +59,24 @@ public class CategoryService {
         category.setIcon(categoryDetails.getIcon());
         category.setColor(categoryDetails.getColor());
 
-        return categoryRepository.save(category);
+        // Flushed first so the category row is locked before the version row
+        Category saved = categoryRepository.saveAndFlush(category);
+        changeLogService.record(saved.getUser().getId(), ChangeLogService.EntityType.CATEGORY, id,
+                ChangeLogService.Operation.UPSERT);
+        return saved;
     }
 
     public void deleteCategory(Long id) {
-        if (!categoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Category", "id", id);
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+        // Partitioned transactions cannot reference categories by foreign key, so the check
+        // covers hot and archived transactions here
+        if (transactionRepository.countHistoryByCategoryId(id) > 0) {
+            throw new BadRequestException("Category has transactions and cannot be deleted");
         }
-        categoryRepository.deleteById(id);
+        categoryRepository.delete(category);
+        categoryRepository.flush();
+        changeLogService.record(category.getUser().getId(), ChangeLogService.EntityType.CATEGORY, id,
+                ChangeLogService.Operation.DELETE);
     }
 }
\ No newline at end of file
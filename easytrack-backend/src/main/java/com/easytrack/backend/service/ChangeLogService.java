@@ -0,0 +1,108 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Records which entities changed in each data version, in the same transaction as the change,
+// so /api/sync/changes can return just the rows a client has not seen. Recording a change also
+// bumps the user's data version.
+@Slf4j
+@Service
+@Transactional
+public class ChangeLogService {
+
+    public enum EntityType {
+        TRANSACTION,
+        ACCOUNT,
+        CATEGORY,
+        BUDGET,
+        RECURRING_TRANSACTION
+    }
+
+    public enum Operation {
+        UPSERT,
+        DELETE
+    }
+
+    public record Change(long version, EntityType entityType, long entityId, Operation operation) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataVersionService dataVersionService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+
+    public ChangeLogService(JdbcTemplate jdbcTemplate,
+                            DataVersionService dataVersionService,
+                            ShardRouter shardRouter,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${sync.change-log.retention:90d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataVersionService = dataVersionService;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+    }
+
+    // The last operation on an entity within one version wins, so create-then-delete in a
+    // single transaction leaves only the tombstone
+    public void record(Long userId, EntityType entityType, Long entityId, Operation operation) {
+        long version = dataVersionService.bump(userId);
+        jdbcTemplate.update("INSERT INTO change_log (user_id, version, entity_type, entity_id, operation, changed_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE operation = ?",
+                userId, version, entityType.name(), entityId, operation.name(),
+                Timestamp.valueOf(LocalDateTime.now()), operation.name());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Change> findSince(Long userId, long sinceVersion, int limit) {
+        return jdbcTemplate.query("SELECT version, entity_type, entity_id, operation FROM change_log " +
+                        "WHERE user_id = ? AND version > ? ORDER BY version LIMIT ?",
+                (rs, rowNum) -> toChange(rs.getLong("version"), rs.getString("entity_type"),
+                        rs.getLong("entity_id"), rs.getString("operation")),
+                userId, sinceVersion, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Change> findByVersion(Long userId, long version) {
+        return jdbcTemplate.query("SELECT version, entity_type, entity_id, operation FROM change_log " +
+                        "WHERE user_id = ? AND version = ?",
+                (rs, rowNum) -> toChange(rs.getLong("version"), rs.getString("entity_type"),
+                        rs.getLong("entity_id"), rs.getString("operation")),
+                userId, version);
+    }
+
+    // Raises each user's log_floor to the newest version being purged, then drops the rows
+    @Scheduled(cron = "${sync.change-log.purge-cron:0 45 4 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void purgeExpired() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        shardRouter.forEachShard(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE user_data_versions v JOIN (" +
+                    "SELECT user_id, MAX(version) AS purged FROM change_log WHERE changed_at < ? GROUP BY user_id) p " +
+                    "ON p.user_id = v.user_id SET v.log_floor = GREATEST(v.log_floor, p.purged)", cutoff);
+            int purged = jdbcTemplate.update("DELETE FROM change_log WHERE changed_at < ?", cutoff);
+            if (purged > 0) {
+                log.info("Purged {} change log rows older than {}", purged, cutoff);
+            }
+        }));
+    }
+
+    private static Change toChange(long version, String entityType, long entityId, String operation) {
+        return new Change(version, EntityType.valueOf(entityType), entityId, Operation.valueOf(operation));
+    }
+}
@@ -0,0 +1,101 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.event.UserDataChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Monotonically increasing version of everything a user can see. Every mutating service method
+// bumps it inside its own transaction (through ChangeLogService), so a committed change and its
+// new version become visible together. Conditional GETs compare it with the client's ETag before
+// running any queries, and delta sync uses it as the sync token.
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class DataVersionService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Returns the user's version for the current transaction. A plain JDBC upsert, so it
+    // neither needs an entity nor triggers a Hibernate flush. The row stays locked until
+    // commit, so a user's versions commit in order.
+    public long bump(Long userId) {
+        BumpedUsers bumped = currentBumps();
+        Long version = bumped != null ? bumped.versions.get(userId) : null;
+        if (version != null) {
+            return version;
+        }
+        jdbcTemplate.update("INSERT INTO user_data_versions (user_id, version) VALUES (?, 1) " +
+                "ON DUPLICATE KEY UPDATE version = version + 1", userId);
+        version = jdbcTemplate.queryForObject(
+                "SELECT version FROM user_data_versions WHERE user_id = ?", Long.class, userId);
+        if (bumped != null) {
+            bumped.versions.put(userId, version);
+        }
+        eventPublisher.publishEvent(new UserDataChangedEvent(userId, version));
+        return version;
+    }
+
+    @Transactional(readOnly = true)
+    public long getVersion(Long userId) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM user_data_versions WHERE user_id = ?", Long.class, userId);
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    // Versions of many users in one round trip; users without a row are left out
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getVersions(Collection<Long> userIds) {
+        Map<Long, Long> versions = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return versions;
+        }
+        jdbcTemplate.query("SELECT user_id, version FROM user_data_versions WHERE user_id IN ("
+                        + String.join(", ", Collections.nCopies(userIds.size(), "?")) + ")",
+                rs -> {
+                    versions.put(rs.getLong("user_id"), rs.getLong("version"));
+                },
+                userIds.toArray());
+        return versions;
+    }
+
+    // The newest version whose change log rows have been purged
+    @Transactional(readOnly = true)
+    public long getLogFloor(Long userId) {
+        List<Long> floors = jdbcTemplate.queryForList(
+                "SELECT log_floor FROM user_data_versions WHERE user_id = ?", Long.class, userId);
+        return floors.isEmpty() ? 0L : floors.get(0);
+    }
+
+    // One bump per user and transaction is enough; a transaction touching an account and a
+    // transaction row would otherwise write the version twice. The map lives in a synchronization
+    // so a REQUIRES_NEW transaction, whose synchronizations are separate, tracks its own bumps.
+    private BumpedUsers currentBumps() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof BumpedUsers bumped) {
+                return bumped;
+            }
+        }
+        BumpedUsers bumped = new BumpedUsers();
+        TransactionSynchronizationManager.registerSynchronization(bumped);
+        return bumped;
+    }
+
+    private static final class BumpedUsers implements TransactionSynchronization {
+        private final Map<Long, Long> versions = new HashMap<>();
+    }
+}
@@ -0,0 +1,162 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardRouter;
+import com.easytrack.backend.exception.BadRequestException;
+import com.easytrack.backend.exception.IdempotencyKeyMismatchException;
+import com.easytrack.backend.exception.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Makes creates safe to retry with an Idempotency-Key header. The key is claimed by inserting its
+// row in the same transaction that performs the create and stores the response, so a key is
+// recorded exactly when its create committed. A retry arriving while the first attempt is still
+// running waits on the claimed row, then replays the stored response; if the first attempt fails,
+// the retry performs the create itself. Recent responses are also kept in a bounded in-memory
+// cache so most retries never reach the database.
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    public record Result<T>(T body, boolean replayed) {
+    }
+
+    private record CacheKey(long userId, String key) {
+    }
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final Cache<CacheKey, StoredResponse> recent;
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate,
+                              JsonMapper jsonMapper,
+                              ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.retention:24h}") Duration retention,
+                              @Value("${idempotency.cache.max-size:10000}") long cacheMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    // Runs the create once per (user, key). A retry with the same key gets the first response;
+    // reusing a key for a different request body is rejected.
+    public <T> Result<T> execute(Long userId, String key, Object request, Class<T> responseType, Supplier<T> create) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        CacheKey cacheKey = new CacheKey(userId, key);
+
+        StoredResponse cached = recent.getIfPresent(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        T body = transactionTemplate.execute(status -> {
+            // Only the key's own INSERT means another request holds the key; a duplicate key
+            // raised by the create itself is that request's error and propagates
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, created_at) " +
+                        "VALUES (?, ?, ?, ?)", userId, key, requestHash, Timestamp.valueOf(LocalDateTime.now()));
+            } catch (DuplicateKeyException e) {
+                return null;
+            }
+            claimed.set(true);
+            T created = create.get();
+            String json = jsonMapper.writeValueAsString(created);
+            jdbcTemplate.update("UPDATE idempotency_keys SET response_body = ? WHERE user_id = ? AND idempotency_key = ?",
+                    json, userId, key);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recent.put(cacheKey, new StoredResponse(requestHash, json));
+                }
+            });
+            return created;
+        });
+        if (claimed.get()) {
+            return new Result<>(body, false);
+        }
+
+        StoredResponse stored = find(userId, key);
+        if (stored == null) {
+            // Purged between the insert attempt and the read
+            throw new ServiceUnavailableException("Request with this " + KEY_HEADER + " is being processed", 1);
+        }
+        recent.put(cacheKey, stored);
+        return replay(stored, requestHash, responseType);
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 50 4 * * *}")
+    public void purgeExpired() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        shardRouter.forEachShard(() -> {
+            int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?", cutoff);
+            if (purged > 0) {
+                log.info("Purged {} idempotency keys older than {}", purged, cutoff);
+            }
+        });
+    }
+
+    private StoredResponse find(Long userId, String key) {
+        return jdbcTemplate.query("SELECT request_hash, response_body FROM idempotency_keys " +
+                                "WHERE user_id = ? AND idempotency_key = ?",
+                        (rs, rowNum) -> new StoredResponse(rs.getString("request_hash"), rs.getString("response_body")),
+                        userId, key)
+                .stream().findFirst().orElse(null);
+    }
+
+    private <T> Result<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(KEY_HEADER + " was already used for a different request");
+        }
+        return new Result<>(jsonMapper.readValue(stored.body(), responseType), true);
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jsonMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardContext;
+import com.easytrack.backend.dto.AccountBalanceEventDTO;
+import com.easytrack.backend.dto.BudgetProgressEventDTO;
+import com.easytrack.backend.dto.TransactionDTO;
+import com.easytrack.backend.dto.TransactionStreamEventDTO;
+import com.easytrack.backend.entity.Account;
+import com.easytrack.backend.entity.Budget;
+import com.easytrack.backend.entity.Transaction;
+import com.easytrack.backend.event.UserDataChangedEvent;
+import com.easytrack.backend.exception.ServiceUnavailableException;
+import com.easytrack.backend.exception.TooManyRequestsException;
+import com.easytrack.backend.mapper.TransactionMapper;
+import com.easytrack.backend.repository.AccountRepository;
+import com.easytrack.backend.repository.BudgetRepository;
+import com.easytrack.backend.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// Server-sent events for connected clients. Each user's stream remembers the data version it
+// has pushed; when the version moves, the change log since then is turned into transaction,
+// account-balance and budget-progress events. Commits on this node trigger that immediately,
+// commits on other nodes are picked up by a batched version poll.
+//
+// Connections are async requests and hold no thread while idle. Events go out through a small
+// sender pool; every subscriber has a bounded queue, and one that falls behind is disconnected
+// rather than buffered (clients reconnect and resync with the token from the last sync event).
+@Slf4j
+@Service
+public class LiveUpdateService {
+
+    private final DataVersionService dataVersionService;
+    private final ChangeLogService changeLogService;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final BudgetRepository budgetRepository;
+    private final TransactionMapper transactionMapper;
+    private final TransactionTemplate readTemplate;
+    private final Duration timeout;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+    private final int queueSize;
+    private final int maxChanges;
+    private final ExecutorService sender;
+    private final Map<Long, UserStream> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public LiveUpdateService(DataVersionService dataVersionService,
+                             ChangeLogService changeLogService,
+                             TransactionRepository transactionRepository,
+                             AccountRepository accountRepository,
+                             BudgetRepository budgetRepository,
+                             TransactionMapper transactionMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${stream.timeout:30m}") Duration timeout,
+                             @Value("${stream.max-connections:10000}") int maxConnections,
+                             @Value("${stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                             @Value("${stream.queue-size:64}") int queueSize,
+                             @Value("${stream.max-changes:200}") int maxChanges,
+                             @Value("${stream.sender-threads:4}") int senderThreads) {
+        this.dataVersionService = dataVersionService;
+        this.changeLogService = changeLogService;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.budgetRepository = budgetRepository;
+        this.transactionMapper = transactionMapper;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.timeout = timeout;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.queueSize = queueSize;
+        this.maxChanges = maxChanges;
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-update-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ServiceUnavailableException("Too many live update connections", 30);
+        }
+
+        Subscriber subscriber;
+        UserStream joined;
+        try {
+            int shard = ShardContext.current();
+            long version = readTemplate.execute(status -> dataVersionService.getVersion(userId));
+            subscriber = new Subscriber(userId, new SseEmitter(timeout.toMillis()));
+            joined = streams.compute(userId, (id, stream) -> {
+                if (stream == null) {
+                    stream = new UserStream(shard, version);
+                }
+                if (stream.subscribers.size() >= maxConnectionsPerUser) {
+                    throw new TooManyRequestsException("Too many live update connections for this user", 30);
+                }
+                stream.subscribers.add(subscriber);
+                return stream;
+            });
+        } catch (RuntimeException e) {
+            connections.decrementAndGet();
+            throw e;
+        }
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        offer(subscriber, new StreamEvent("sync", Map.of("token", String.valueOf(joined.version))));
+        return emitter;
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        refresh(event.getUserId());
+    }
+
+    // Catches commits made on other nodes: one version query per shard for all connected users
+    @Scheduled(fixedDelayString = "${stream.poll-interval:2s}")
+    public void pollVersions() {
+        if (streams.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Long>> usersByShard = new HashMap<>();
+        streams.forEach((userId, stream) ->
+                usersByShard.computeIfAbsent(stream.shard, shard -> new ArrayList<>()).add(userId));
+
+        usersByShard.forEach((shard, userIds) -> {
+            for (int from = 0; from < userIds.size(); from += 1000) {
+                List<Long> batch = userIds.subList(from, Math.min(from + 1000, userIds.size()));
+                Map<Long, Long> versions = ShardContext.callOn(shard,
+                        () -> readTemplate.execute(status -> dataVersionService.getVersions(batch)));
+                versions.forEach((userId, version) -> {
+                    UserStream stream = streams.get(userId);
+                    if (stream != null && version > stream.version) {
+                        refresh(userId);
+                    }
+                });
+            }
+        });
+    }
+
+    // Keeps proxies from closing idle connections and detects clients that went away
+    @Scheduled(fixedDelayString = "${stream.heartbeat-interval:20s}")
+    public void heartbeat() {
+        streams.values().forEach(stream -> stream.subscribers
+                .forEach(subscriber -> offer(subscriber, StreamEvent.HEARTBEAT)));
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    private void refresh(Long userId) {
+        UserStream stream = streams.get(userId);
+        if (stream == null) {
+            return;
+        }
+        // One refresh per user at a time, so events go out in version order. A lock rather than a
+        // monitor: the queries below would pin a virtual thread inside synchronized.
+        stream.refreshLock.lock();
+        try {
+            List<StreamEvent> events = ShardContext.callOn(stream.shard,
+                    () -> readTemplate.execute(status -> buildEvents(userId, stream)));
+            for (StreamEvent event : events) {
+                stream.subscribers.forEach(subscriber -> offer(subscriber, event));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to build live updates for user {}", userId, e);
+        } finally {
+            stream.refreshLock.unlock();
+        }
+    }
+
+    // Turns everything between the version last pushed and the current one into events
+    private List<StreamEvent> buildEvents(Long userId, UserStream stream) {
+        long current = dataVersionService.getVersion(userId);
+        if (current <= stream.version) {
+            return List.of();
+        }
+        List<ChangeLogService.Change> changes = changeLogService.findSince(userId, stream.version, maxChanges + 1);
+        stream.version = current;
+
+        List<StreamEvent> events = new ArrayList<>();
+        Map<String, String> token = Map.of("token", String.valueOf(current));
+        if (changes.size() > maxChanges) {
+            // Too much at once to stream piecemeal; the client fetches it through /api/sync/changes
+            events.add(new StreamEvent("resync", token));
+            return events;
+        }
+
+        Map<Long, ChangeLogService.Operation> transactions = new LinkedHashMap<>();
+        Set<Long> accountIds = new HashSet<>();
+        boolean budgetsChanged = false;
+        for (ChangeLogService.Change change : changes) {
+            switch (change.entityType()) {
+                case TRANSACTION -> {
+                    transactions.put(change.entityId(), change.operation());
+                    budgetsChanged = true;
+                }
+                case ACCOUNT -> accountIds.add(change.entityId());
+                case BUDGET -> budgetsChanged = true;
+                default -> {
+                    // categories and recurring schedules are covered by the sync event
+                }
+            }
+        }
+
+        transactionEvents(userId, transactions).forEach(event -> events.add(new StreamEvent("transaction", event)));
+        if (!accountIds.isEmpty()) {
+            accountBalanceEvents(userId, accountIds)
+                    .forEach(event -> events.add(new StreamEvent("account-balance", event)));
+        }
+        if (budgetsChanged) {
+            budgetProgressEvents(userId).forEach(event -> events.add(new StreamEvent("budget-progress", event)));
+        }
+        events.add(new StreamEvent("sync", token));
+        return events;
+    }
+
+    private List<TransactionStreamEventDTO> transactionEvents(Long userId,
+                                                              Map<Long, ChangeLogService.Operation> transactions) {
+        Set<Long> upserted = transactions.entrySet().stream()
+                .filter(entry -> entry.getValue() == ChangeLogService.Operation.UPSERT)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        Map<Long, TransactionDTO> found = upserted.isEmpty()
+                ? Map.of()
+                : transactionRepository.findHistoryByUserIdAndIdIn(userId, upserted).stream()
+                        .collect(Collectors.toMap(Transaction::getId, transactionMapper::toDTO));
+
+        List<TransactionStreamEventDTO> events = new ArrayList<>();
+        transactions.keySet().forEach(id -> {
+            TransactionDTO dto = found.get(id);
+            events.add(dto != null
+                    ? new TransactionStreamEventDTO(id, ChangeLogService.Operation.UPSERT.name(), dto)
+                    : new TransactionStreamEventDTO(id, ChangeLogService.Operation.DELETE.name(), null));
+        });
+        return events;
+    }
+
+    private List<AccountBalanceEventDTO> accountBalanceEvents(Long userId, Set<Long> accountIds) {
+        BigDecimal totalBalance = accountRepository.findByUserIdAndIsActive(userId, true).stream()
+                .map(Account::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return accountRepository.findByUserIdAndIdIn(userId, accountIds).stream()
+                .map(account -> new AccountBalanceEventDTO(account.getId(), account.getBalance(), totalBalance))
+                .toList();
+    }
+
+    // Spent is summed live: the stored budget.spent only moves when a budget is saved or refreshed
+    private List<BudgetProgressEventDTO> budgetProgressEvents(Long userId) {
+        LocalDate today = LocalDate.now();
+        return budgetRepository.findByUserIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(userId, today, today)
+                .stream()
+                .filter(budget -> Boolean.TRUE.equals(budget.getIsActive()))
+                .map(budget -> {
+                    BigDecimal spent = transactionRepository.sumByCategoryAndDateRange(userId,
+                            budget.getCategory().getId(), budget.getStartDate(), budget.getEndDate());
+                    return toProgress(budget, spent != null ? spent : BigDecimal.ZERO);
+                })
+                .toList();
+    }
+
+    private static BudgetProgressEventDTO toProgress(Budget budget, BigDecimal spent) {
+        BigDecimal progress = budget.getAmount().signum() == 0
+                ? BigDecimal.ZERO
+                : spent.divide(budget.getAmount(), 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
+                        .setScale(2, RoundingMode.HALF_UP);
+        return new BudgetProgressEventDTO(budget.getId(), budget.getCategory().getId(), budget.getAmount(),
+                spent, progress);
+    }
+
+    private void offer(Subscriber subscriber, StreamEvent event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            log.debug("Dropping slow live update subscriber of user {}", subscriber.userId);
+            close(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            StreamEvent event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event.toBuilder());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container reports it through onError/onCompletion too
+            remove(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+            if (!subscriber.closed.get() && !subscriber.queue.isEmpty()
+                    && subscriber.draining.compareAndSet(false, true)) {
+                sender.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    // complete() waits for a send in progress, so it runs on the sender pool, not the caller
+    private void close(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            sender.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        connections.decrementAndGet();
+        streams.computeIfPresent(subscriber.userId, (id, stream) -> {
+            stream.subscribers.remove(subscriber);
+            return stream.subscribers.isEmpty() ? null : stream;
+        });
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.values().forEach(stream -> stream.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    // Builders are single-use, so queues hold the event and each subscriber gets its own builder
+    private record StreamEvent(String name, Object data) {
+
+        private static final StreamEvent HEARTBEAT = new StreamEvent(null, null);
+
+        private SseEmitter.SseEventBuilder toBuilder() {
+            return name == null
+                    ? SseEmitter.event().comment("heartbeat")
+                    : SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static final class UserStream {
+        private final int shard;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final ReentrantLock refreshLock = new ReentrantLock();
+        // Data version whose changes have been pushed; guarded by refreshLock
+        private volatile long version;
+
+        private UserStream(int shard, long version) {
+            this.shard = shard;
+            this.version = version;
+        }
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
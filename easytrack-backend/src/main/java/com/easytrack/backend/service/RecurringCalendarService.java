@@ -0,0 +1,130 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.dto.RecurringCalendarEntryDTO;
+import com.easytrack.backend.entity.RecurringTransaction;
+import com.easytrack.backend.exception.BadRequestException;
+import com.easytrack.backend.repository.RecurringTransactionRepository;
+import com.easytrack.backend.util.RecurrenceCalculator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class RecurringCalendarService {
+
+    private static final int MAX_WINDOWS_PER_USER = 16;
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final long maxDays;
+
+    // Per-user expansions keyed by window; a user's entry is dropped whenever one of their schedules
+    // changes on this node and at the latest one TTL after it was built, which bounds how long
+    // changes made on other nodes can go unseen
+    private final Cache<Long, Map<CalendarWindow, List<RecurringCalendarEntryDTO>>> cache;
+
+    public RecurringCalendarService(RecurringTransactionRepository recurringTransactionRepository,
+                                    @Value("${recurring.calendar.max-days:3660}") long maxDays,
+                                    @Value("${recurring.calendar.cache.max-users:10000}") long maxUsers,
+                                    @Value("${recurring.calendar.cache.ttl:10m}") Duration ttl) {
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.maxDays = maxDays;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringCalendarEntryDTO> getCalendar(Long userId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > maxDays) {
+            throw new BadRequestException("Calendar range must not exceed " + maxDays + " days");
+        }
+
+        Map<CalendarWindow, List<RecurringCalendarEntryDTO>> windows =
+                cache.get(userId, id -> new ConcurrentHashMap<>());
+        CalendarWindow window = new CalendarWindow(from, to);
+
+        List<RecurringCalendarEntryDTO> entries = windows.get(window);
+        if (entries == null) {
+            entries = expand(userId, from, to);
+            if (windows.size() >= MAX_WINDOWS_PER_USER) {
+                windows.clear();
+            }
+            windows.put(window, entries);
+        }
+        return entries;
+    }
+
+    public void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        } else {
+            cache.invalidate(userId);
+        }
+    }
+
+    private List<RecurringCalendarEntryDTO> expand(Long userId, LocalDate from, LocalDate to) {
+        List<RecurringCalendarEntryDTO> entries = new ArrayList<>();
+
+        for (RecurringTransaction recurring : recurringTransactionRepository.findByUserIdAndIsActive(userId, true)) {
+            LocalDate next = recurring.getNextOccurrence() != null
+                    ? recurring.getNextOccurrence()
+                    : recurring.getStartDate();
+            LocalDate end = recurring.getEndDate() != null && recurring.getEndDate().isBefore(to)
+                    ? recurring.getEndDate()
+                    : to;
+            if (next.isAfter(end)) {
+                continue;
+            }
+
+            // The pending occurrence is posted as stored; the ones after it follow the start-date grid
+            if (!next.isBefore(from)) {
+                entries.add(toEntry(recurring, next));
+            }
+            LocalDate gridStart = from.isAfter(next) ? from : next.plusDays(1);
+            RecurrenceCalculator.occurrencesBetween(recurring.getStartDate(), recurring.getFrequency(), gridStart, end)
+                    .forEach(date -> entries.add(toEntry(recurring, date)));
+        }
+
+        entries.sort(Comparator.comparing(RecurringCalendarEntryDTO::getDate)
+                .thenComparing(RecurringCalendarEntryDTO::getRecurringTransactionId));
+        return List.copyOf(entries);
+    }
+
+    private RecurringCalendarEntryDTO toEntry(RecurringTransaction recurring, LocalDate date) {
+        return new RecurringCalendarEntryDTO(
+                recurring.getId(),
+                date,
+                recurring.getTitle(),
+                recurring.getType().name(),
+                recurring.getAmount(),
+                recurring.getFrequency().name(),
+                recurring.getAccount().getId(),
+                recurring.getCategory().getId()
+        );
+    }
+
+    private record CalendarWindow(LocalDate from, LocalDate to) {
+    }
+}
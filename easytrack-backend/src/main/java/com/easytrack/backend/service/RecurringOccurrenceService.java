@@ -0,0 +1,93 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.entity.RecurringOccurrence;
+import com.easytrack.backend.entity.RecurringTransaction;
+import com.easytrack.backend.entity.Transaction;
+import com.easytrack.backend.repository.RecurringOccurrenceRepository;
+import com.easytrack.backend.repository.RecurringTransactionRepository;
+import com.easytrack.backend.util.RecurrenceCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class RecurringOccurrenceService {
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final RecurringOccurrenceRepository recurringOccurrenceRepository;
+    private final TransactionService transactionService;
+    private final RecurringCalendarService recurringCalendarService;
+    private final ChangeLogService changeLogService;
+
+    // Materializes every occurrence of one schedule that is due on or before the given date.
+    // The schedule row is locked for the duration, and each occurrence is keyed by
+    // (recurring_transaction_id, occurrence_date), so running this twice never double-posts.
+    // Returns the next pending occurrence, or empty if the schedule is no longer active.
+    public Optional<LocalDate> materializeDueOccurrences(Long recurringTransactionId, LocalDate date) {
+        RecurringTransaction recurring = recurringTransactionRepository.findByIdForUpdate(recurringTransactionId)
+                .orElse(null);
+        if (recurring == null) {
+            return Optional.empty();
+        }
+
+        boolean advanced = false;
+        while (isDue(recurring, date)) {
+            advanced = true;
+            LocalDate occurrenceDate = recurring.getNextOccurrence();
+
+            if (!recurringOccurrenceRepository.existsByRecurringTransactionIdAndOccurrenceDate(
+                    recurring.getId(), occurrenceDate)) {
+                Transaction created = transactionService.createTransaction(toTransaction(recurring, occurrenceDate));
+                recurringOccurrenceRepository.save(
+                        new RecurringOccurrence(null, recurring, occurrenceDate, created, null));
+            }
+
+            // Update next occurrence
+            LocalDate nextOccurrence = RecurrenceCalculator.nextAfter(
+                    recurring.getStartDate(), recurring.getFrequency(), occurrenceDate);
+
+            // Check if we've passed the end date
+            if (recurring.getEndDate() != null && nextOccurrence.isAfter(recurring.getEndDate())) {
+                recurring.setIsActive(false);
+            } else {
+                recurring.setNextOccurrence(nextOccurrence);
+            }
+        }
+
+        recurringTransactionRepository.save(recurring);
+        recurringCalendarService.evictAfterCommit(recurring.getUser().getId());
+        if (advanced) {
+            changeLogService.record(recurring.getUser().getId(), ChangeLogService.EntityType.RECURRING_TRANSACTION,
+                    recurring.getId(), ChangeLogService.Operation.UPSERT);
+        }
+
+        return Boolean.TRUE.equals(recurring.getIsActive())
+                ? Optional.ofNullable(recurring.getNextOccurrence())
+                : Optional.empty();
+    }
+
+    private boolean isDue(RecurringTransaction recurring, LocalDate date) {
+        return Boolean.TRUE.equals(recurring.getIsActive())
+                && recurring.getNextOccurrence() != null
+                && !recurring.getNextOccurrence().isAfter(date);
+    }
+
+    private Transaction toTransaction(RecurringTransaction recurring, LocalDate occurrenceDate) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(recurring.getUser());
+        transaction.setAccount(recurring.getAccount());
+        transaction.setCategory(recurring.getCategory());
+        transaction.setType(Transaction.TransactionType.valueOf(recurring.getType().name()));
+        transaction.setAmount(recurring.getAmount());
+        transaction.setTransactionDate(occurrenceDate);
+        transaction.setDescription(recurring.getDescription());
+        transaction.setNotes("Auto-generated from recurring transaction: " + recurring.getTitle());
+        return transaction;
+    }
+}
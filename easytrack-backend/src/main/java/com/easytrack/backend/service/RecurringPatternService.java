@@ -0,0 +1,367 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardRouter;
+import com.easytrack.backend.dto.RecurringTransactionDTO;
+import com.easytrack.backend.entity.RecurringTransaction;
+import com.easytrack.backend.entity.Transaction;
+import com.easytrack.backend.entity.TransactionPattern;
+import com.easytrack.backend.event.TransactionChangedEvent;
+import com.easytrack.backend.repository.RecurringTransactionRepository;
+import com.easytrack.backend.repository.TransactionPatternRepository;
+import com.easytrack.backend.repository.TransactionRepository;
+import com.easytrack.backend.repository.UserRepository;
+import com.easytrack.backend.util.RecurrenceCalculator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Detects subscriptions and other regular payments in a user's transaction history.
+// Transactions are grouped by (type, amount, normalized description) and each group keeps
+// running statistics of the day gaps between consecutive transactions. Groups whose gaps
+// are consistently close to a supported frequency are proposed as recurring transactions.
+@Slf4j
+@Service
+public class RecurringPatternService {
+
+    private static final String LEASE_PREFIX = "pattern-backfill-partition-";
+    private static final int MIN_OCCURRENCES = 3;
+    private static final int PAGE_SIZE = 500;
+    // Margin for clock differences between the nodes that stamp created_at
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final TransactionPatternRepository patternRepository;
+    private final TransactionRepository transactionRepository;
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final UserRepository userRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate readTemplate;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pattern-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${recurring.detection.backfill-partitions:4}")
+    private int partitionCount;
+
+    @Value("${recurring.detection.lease-duration:30m}")
+    private Duration leaseDuration;
+
+    public RecurringPatternService(TransactionPatternRepository patternRepository,
+                                   TransactionRepository transactionRepository,
+                                   RecurringTransactionRepository recurringTransactionRepository,
+                                   UserRepository userRepository,
+                                   SchedulerLeaseService schedulerLeaseService,
+                                   ShardRouter shardRouter,
+                                   PlatformTransactionManager transactionManager) {
+        this.patternRepository = patternRepository;
+        this.transactionRepository = transactionRepository;
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.userRepository = userRepository;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.shardRouter = shardRouter;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        // Only new transactions extend a group; edits and deletes are reconciled by the backfill
+        if (event.getChangeType() != TransactionChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        // A recording locks only the pattern row it updates. When two recordings both insert a new
+        // group, the unique key rejects one of them, and the retry finds and locks the other's row.
+        try {
+            recordTransaction(event.getTransactionId());
+        } catch (DataIntegrityViolationException e) {
+            recordTransaction(event.getTransactionId());
+        }
+    }
+
+    private void recordTransaction(Long transactionId) {
+        writeTemplate.executeWithoutResult(status ->
+                transactionRepository.findById(transactionId).ifPresent(this::record));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringTransactionDTO> getSuggestions(Long userId) {
+        LocalDate today = LocalDate.now();
+
+        Set<String> existing = recurringTransactionRepository.findByUserIdAndIsActive(userId, true).stream()
+                .map(recurring -> groupKey(recurring.getType().name(), recurring.getAmount(),
+                        normalize(recurring.getDescription() != null ? recurring.getDescription() : recurring.getTitle())))
+                .collect(Collectors.toSet());
+
+        return patternRepository.findByUserIdAndSuggestedFrequencyIsNotNull(userId).stream()
+                .filter(pattern -> !existing.contains(groupKey(pattern.getType().name(), pattern.getAmount(),
+                        pattern.getNormalizedDescription())))
+                .map(pattern -> toSuggestion(pattern, today))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Rebuilds every user's statistics from scratch. Users are split into partitions that are
+    // processed in parallel, each under a lease so that other nodes skip them. History is read
+    // in small keyset pages with plain reads, so the transactions table is never locked.
+    @Scheduled(cron = "${recurring.detection.backfill-cron:-}")
+    public void backfillAll() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            log.info("Recurring pattern backfill is already running on this node");
+            return;
+        }
+        try {
+            runBackfill();
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    // Starts the backfill in the background; false if it is already running on this node
+    public boolean startBackfill() {
+        if (backfillRunning.get()) {
+            return false;
+        }
+        backfillExecutor.submit(this::backfillAll);
+        return true;
+    }
+
+    public boolean isBackfillRunning() {
+        return backfillRunning.get();
+    }
+
+    private void runBackfill() {
+        ExecutorService executor = Executors.newFixedThreadPool(partitionCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < partitionCount; i++) {
+                int partition = i;
+                futures.add(executor.submit(() -> schedulerLeaseService.runWithLease(
+                        LEASE_PREFIX + partition, leaseDuration,
+                        () -> shardRouter.forEachShard(() -> backfillPartition(partition)))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Recurring pattern backfill failed", e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void backfillPartition(int partition) {
+        List<Long> userIds = userRepository.findIdsByPartition(partitionCount, partition);
+        for (Long userId : userIds) {
+            try {
+                rebuildUser(userId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebuild recurring patterns for user {}: {}", userId, e.getMessage());
+            }
+        }
+        log.debug("Rebuilt recurring patterns for {} users in partition {}", userIds.size(), partition);
+    }
+
+    private void rebuildUser(Long userId) {
+        LocalDateTime started = LocalDateTime.now().minus(CLOCK_SKEW);
+        Map<String, TransactionPattern> patterns = new LinkedHashMap<>();
+        LocalDate afterDate = LocalDate.MIN;
+        Long afterId = 0L;
+
+        while (true) {
+            LocalDate pageAfterDate = afterDate;
+            Long pageAfterId = afterId;
+            List<Transaction> page = readTemplate.execute(status -> transactionRepository.findPageByUserIdAfter(
+                    userId, pageAfterDate, pageAfterId, PageRequest.of(0, PAGE_SIZE)));
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+
+            page.forEach(transaction -> accumulate(patterns, transaction));
+
+            Transaction last = page.get(page.size() - 1);
+            afterDate = last.getTransactionDate();
+            afterId = last.getId();
+        }
+
+        writeTemplate.executeWithoutResult(status -> {
+            // Deleting first locks the user's pattern rows and the gaps between them, so recordings
+            // wait for this rebuild, and the read below sees everything they committed before it
+            patternRepository.deleteByUserId(userId);
+            // Transactions created while the history was read may have been recorded into the rows
+            // just deleted; apply them again. Ones already counted are ignored by apply().
+            transactionRepository.findByUserIdCreatedSince(userId, started)
+                    .forEach(transaction -> accumulate(patterns, transaction));
+            patternRepository.saveAll(patterns.values());
+        });
+    }
+
+    private void accumulate(Map<String, TransactionPattern> patterns, Transaction transaction) {
+        String normalized = normalize(transaction.getDescription());
+        if (normalized.isEmpty()) {
+            return;
+        }
+        BigDecimal amount = scale(transaction.getAmount());
+        TransactionPattern pattern = patterns.computeIfAbsent(
+                groupKey(transaction.getType().name(), amount, normalized),
+                key -> newPattern(transaction, normalized, amount));
+        apply(pattern, transaction);
+    }
+
+    private void record(Transaction transaction) {
+        String normalized = normalize(transaction.getDescription());
+        if (normalized.isEmpty()) {
+            return;
+        }
+        BigDecimal amount = scale(transaction.getAmount());
+
+        TransactionPattern pattern = patternRepository.findByUserIdAndTypeAndAmountAndNormalizedDescription(
+                        transaction.getUser().getId(), transaction.getType(), amount, normalized)
+                .orElseGet(() -> newPattern(transaction, normalized, amount));
+        apply(pattern, transaction);
+        // Flushed here so a clashing insert fails inside the recording and can be retried
+        patternRepository.saveAndFlush(pattern);
+    }
+
+    private TransactionPattern newPattern(Transaction transaction, String normalized, BigDecimal amount) {
+        TransactionPattern pattern = new TransactionPattern();
+        pattern.setUser(transaction.getUser());
+        pattern.setNormalizedDescription(normalized);
+        pattern.setType(transaction.getType());
+        pattern.setAmount(amount);
+        return pattern;
+    }
+
+    private void apply(TransactionPattern pattern, Transaction transaction) {
+        LocalDate date = transaction.getTransactionDate();
+        pattern.setSampleDescription(transaction.getDescription());
+        pattern.setAccount(transaction.getAccount());
+        pattern.setCategory(transaction.getCategory());
+
+        if (pattern.getOccurrences() == 0) {
+            pattern.setOccurrences(1);
+            pattern.setFirstDate(date);
+            pattern.setLastDate(date);
+            return;
+        }
+
+        // Same-day duplicates and back-dated entries carry no interval information
+        if (!date.isAfter(pattern.getLastDate())) {
+            return;
+        }
+
+        double interval = ChronoUnit.DAYS.between(pattern.getLastDate(), date);
+        int intervals = pattern.getOccurrences();
+        double delta = interval - pattern.getIntervalMean();
+        double mean = pattern.getIntervalMean() + delta / intervals;
+        pattern.setIntervalMean(mean);
+        pattern.setIntervalM2(pattern.getIntervalM2() + delta * (interval - mean));
+        pattern.setOccurrences(pattern.getOccurrences() + 1);
+        pattern.setLastDate(date);
+        pattern.setSuggestedFrequency(classify(pattern));
+    }
+
+    private RecurringTransaction.Frequency classify(TransactionPattern pattern) {
+        if (pattern.getOccurrences() < MIN_OCCURRENCES) {
+            return null;
+        }
+        int intervals = pattern.getOccurrences() - 1;
+        double mean = pattern.getIntervalMean();
+        double stdDev = Math.sqrt(pattern.getIntervalM2() / intervals);
+
+        if (mean >= 0.8 && mean <= 1.5 && stdDev <= 0.5) {
+            return RecurringTransaction.Frequency.DAILY;
+        } else if (mean >= 6 && mean <= 8 && stdDev <= 1.5) {
+            return RecurringTransaction.Frequency.WEEKLY;
+        } else if (mean >= 27 && mean <= 33 && stdDev <= 3) {
+            return RecurringTransaction.Frequency.MONTHLY;
+        } else if (mean >= 355 && mean <= 375 && stdDev <= 7) {
+            return RecurringTransaction.Frequency.YEARLY;
+        }
+        return null;
+    }
+
+    private RecurringTransactionDTO toSuggestion(TransactionPattern pattern, LocalDate today) {
+        RecurringTransaction.Frequency frequency = pattern.getSuggestedFrequency();
+        LocalDate nextDate = RecurrenceCalculator.occurrence(pattern.getLastDate(), frequency, 1);
+
+        // A pattern that has missed two expected occurrences has most likely stopped
+        if (RecurrenceCalculator.occurrence(pattern.getLastDate(), frequency, 2).isBefore(today)) {
+            return null;
+        }
+
+        RecurringTransactionDTO dto = new RecurringTransactionDTO();
+        dto.setUserId(pattern.getUser().getId());
+        dto.setAccountId(pattern.getAccount() != null ? pattern.getAccount().getId() : null);
+        dto.setCategoryId(pattern.getCategory() != null ? pattern.getCategory().getId() : null);
+        dto.setType(pattern.getType().name());
+        dto.setAmount(pattern.getAmount());
+        dto.setTitle(truncate(pattern.getSampleDescription(), 100));
+        dto.setDescription(pattern.getSampleDescription());
+        dto.setFrequency(frequency.name());
+        dto.setStartDate(nextDate);
+        dto.setNextOccurrence(nextDate);
+        dto.setIsActive(true);
+        return dto;
+    }
+
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        String normalized = description.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\s]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+        return truncate(normalized, 255);
+    }
+
+    private static String groupKey(String type, BigDecimal amount, String normalized) {
+        return type + "|" + scale(amount).toPlainString() + "|" + normalized;
+    }
+
+    private static BigDecimal scale(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+}
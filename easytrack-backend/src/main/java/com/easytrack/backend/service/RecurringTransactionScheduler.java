@@ -0,0 +1,187 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardContext;
+import com.easytrack.backend.config.ShardRouter;
+import com.easytrack.backend.entity.RecurringTransaction;
+import com.easytrack.backend.event.UserShardMovedEvent;
+import com.easytrack.backend.repository.RecurringTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecurringTransactionScheduler {
+
+    private static final String LEASE_PREFIX = "recurring-partition-";
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final RecurringOccurrenceService recurringOccurrenceService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final ShardRouter shardRouter;
+
+    @Value("${recurring.scheduler.partitions:8}")
+    private int partitionCount;
+
+    @Value("${recurring.scheduler.lease-duration:5m}")
+    private Duration leaseDuration;
+
+    // Pending schedules bucketed by their next occurrence day. Dispatching only ever
+    // looks at the head buckets, so the database is not scanned to find due work.
+    private final NavigableMap<LocalDate, Set<Long>> buckets = new TreeMap<>();
+    private final Map<Long, LocalDate> scheduled = new HashMap<>();
+    // Shard holding each pending schedule, so it is materialized against the right database
+    private final Map<Long, Integer> shards = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${recurring.scheduler.resync-interval:15m}",
+            initialDelayString = "${recurring.scheduler.resync-interval:15m}")
+    public void reload() {
+        // Periodic reload picks up schedules created or changed on other nodes
+        List<RecurringTransactionRepository.ScheduledOccurrence> active = new ArrayList<>();
+        Map<Long, Integer> shardOf = new HashMap<>();
+        shardRouter.forEachShard(() -> recurringTransactionRepository.findActiveSchedules().forEach(entry -> {
+            active.add(entry);
+            shardOf.put(entry.getId(), ShardContext.current());
+        }));
+
+        synchronized (this) {
+            buckets.clear();
+            scheduled.clear();
+            shards.clear();
+            active.forEach(entry -> schedule(entry.getId(), entry.getNextOccurrence(), shardOf.get(entry.getId())));
+        }
+        log.debug("Loaded {} recurring schedules", active.size());
+    }
+
+    @Scheduled(fixedDelayString = "${recurring.scheduler.poll-interval:1m}")
+    public void dispatchDue() {
+        LocalDate today = LocalDate.now();
+
+        for (Map.Entry<Integer, List<Long>> partition : takeDue(today).entrySet()) {
+            List<Long> ids = partition.getValue();
+            boolean processed = schedulerLeaseService.runWithLease(
+                    LEASE_PREFIX + partition.getKey(),
+                    leaseDuration,
+                    () -> ids.forEach(id -> materialize(id, today, shardOf(id))));
+
+            if (!processed) {
+                // Another node holds this partition; retry on the next tick
+                ids.forEach(id -> schedule(id, today, shardOf(id)));
+            }
+        }
+    }
+
+    // Full scan of due schedules, used when processing is triggered explicitly
+    public void processAllDue() {
+        LocalDate today = LocalDate.now();
+
+        // Visit partitions in random order so that concurrent nodes spread out
+        List<Integer> partitions = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(i);
+        }
+        Collections.shuffle(partitions);
+
+        for (int partition : partitions) {
+            schedulerLeaseService.runWithLease(LEASE_PREFIX + partition, leaseDuration, () ->
+                    shardRouter.forEachShard(() ->
+                            recurringTransactionRepository.findDueIdsByPartition(today, partitionCount, partition)
+                                    .forEach(id -> materialize(id, today, ShardContext.current()))));
+        }
+    }
+
+    public void scheduleAfterCommit(RecurringTransaction recurringTransaction) {
+        Long id = recurringTransaction.getId();
+        LocalDate nextOccurrence = Boolean.TRUE.equals(recurringTransaction.getIsActive())
+                ? recurringTransaction.getNextOccurrence()
+                : null;
+        int shard = ShardContext.current();
+        afterCommit(() -> schedule(id, nextOccurrence, shard));
+    }
+
+    public void unscheduleAfterCommit(Long id) {
+        afterCommit(() -> schedule(id, null, ShardContext.DEFAULT_SHARD));
+    }
+
+    // Moves on other nodes are picked up by the next reload; until then a schedule dispatched
+    // against its old shard is not found there and is dropped from the map
+    @EventListener
+    public synchronized void onUserShardMoved(UserShardMovedEvent event) {
+        event.getRecurringTransactionIds().forEach(id -> shards.computeIfPresent(id, (key, shard) -> event.getShard()));
+    }
+
+    private void materialize(Long id, LocalDate today, int shard) {
+        ShardContext.runOn(shard, () -> {
+            try {
+                schedule(id, recurringOccurrenceService.materializeDueOccurrences(id, today).orElse(null), shard);
+            } catch (RuntimeException e) {
+                // One failing schedule (e.g. insufficient balance) must not block the rest; retry tomorrow
+                log.warn("Failed to materialize recurring transaction {}: {}", id, e.getMessage());
+                schedule(id, today.plusDays(1), shard);
+            }
+        });
+    }
+
+    private synchronized int shardOf(Long id) {
+        return shards.getOrDefault(id, ShardContext.DEFAULT_SHARD);
+    }
+
+    private synchronized void schedule(Long id, LocalDate nextOccurrence, int shard) {
+        if (nextOccurrence != null) {
+            shards.put(id, shard);
+        } else {
+            shards.remove(id);
+        }
+        LocalDate previous = nextOccurrence != null ? scheduled.put(id, nextOccurrence) : scheduled.remove(id);
+        if (previous != null) {
+            Set<Long> bucket = buckets.get(previous);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.remove(previous);
+                }
+            }
+        }
+        if (nextOccurrence != null) {
+            buckets.computeIfAbsent(nextOccurrence, date -> new HashSet<>()).add(id);
+        }
+    }
+
+    private synchronized Map<Integer, List<Long>> takeDue(LocalDate date) {
+        Map<Integer, List<Long>> due = new TreeMap<>();
+        NavigableMap<LocalDate, Set<Long>> head = buckets.headMap(date, true);
+        for (Set<Long> bucket : head.values()) {
+            for (Long id : bucket) {
+                scheduled.remove(id);
+                due.computeIfAbsent((int) Math.floorMod(id, (long) partitionCount), p -> new ArrayList<>()).add(id);
+            }
+        }
+        head.clear();
+        return due;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
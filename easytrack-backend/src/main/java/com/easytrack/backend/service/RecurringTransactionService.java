@@ -1,14 +1,14 @@
 package com.easytrack.backend.service;
 
+import com.easytrack.backend.config.ShardRouter;
 import com.easytrack.backend.entity.RecurringTransaction;
-import com.easytrack.backend.entity.Transaction;
 import com.easytrack.backend.exception.ResourceNotFoundException;
 import com.easytrack.backend.repository.RecurringTransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,14 +18,22 @@ import java.util.Optional;
 public class RecurringTransactionService {
 
     private final RecurringTransactionRepository recurringTransactionRepository;
-    private final TransactionService transactionService;
+    private final RecurringTransactionScheduler recurringTransactionScheduler;
+    private final RecurringCalendarService recurringCalendarService;
+    private final ShardRouter shardRouter;
+    private final ChangeLogService changeLogService;
 
     public RecurringTransaction createRecurringTransaction(RecurringTransaction recurringTransaction) {
         // Set next occurrence if not set
         if (recurringTransaction.getNextOccurrence() == null) {
             recurringTransaction.setNextOccurrence(recurringTransaction.getStartDate());
         }
-        return recurringTransactionRepository.save(recurringTransaction);
+        RecurringTransaction saved = recurringTransactionRepository.save(recurringTransaction);
+        recurringTransactionScheduler.scheduleAfterCommit(saved);
+        recurringCalendarService.evictAfterCommit(saved.getUser().getId());
+        changeLogService.record(saved.getUser().getId(), ChangeLogService.EntityType.RECURRING_TRANSACTION,
+                saved.getId(), ChangeLogService.Operation.UPSERT);
+        return saved;
     }
 
     public Optional<RecurringTransaction> getRecurringTransactionById(Long id) {
@@ -33,7 +41,7 @@ public class RecurringTransactionService {
     }
 
     public List<RecurringTransaction> getAllRecurringTransactions() {
-        return recurringTransactionRepository.findAll();
+        return shardRouter.fanOut(recurringTransactionRepository::findAll);
     }
 
     public List<RecurringTransaction> getRecurringTransactionsByUserId(Long userId) {
@@ -59,59 +67,28 @@ public class RecurringTransactionService {
         recurringTransaction.setEndDate(details.getEndDate());
         recurringTransaction.setIsActive(details.getIsActive());
 
-        return recurringTransactionRepository.save(recurringTransaction);
+        // Flushed first so the schedule row is locked before the version row
+        RecurringTransaction saved = recurringTransactionRepository.saveAndFlush(recurringTransaction);
+        recurringTransactionScheduler.scheduleAfterCommit(saved);
+        recurringCalendarService.evictAfterCommit(saved.getUser().getId());
+        changeLogService.record(saved.getUser().getId(), ChangeLogService.EntityType.RECURRING_TRANSACTION,
+                saved.getId(), ChangeLogService.Operation.UPSERT);
+        return saved;
     }
 
     public void deleteRecurringTransaction(Long id) {
-        if (!recurringTransactionRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Recurring Transaction", "id", id);
-        }
-        recurringTransactionRepository.deleteById(id);
+        RecurringTransaction recurringTransaction = recurringTransactionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring Transaction", "id", id));
+        recurringTransactionRepository.delete(recurringTransaction);
+        recurringTransactionRepository.flush();
+        recurringTransactionScheduler.unscheduleAfterCommit(id);
+        recurringCalendarService.evictAfterCommit(recurringTransaction.getUser().getId());
+        changeLogService.record(recurringTransaction.getUser().getId(), ChangeLogService.EntityType.RECURRING_TRANSACTION,
+                id, ChangeLogService.Operation.DELETE);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processRecurringTransactions() {
-        LocalDate today = LocalDate.now();
-        List<RecurringTransaction> dueTransactions =
-                recurringTransactionRepository.findByIsActiveTrueAndNextOccurrenceLessThanEqual(today);
-
-        for (RecurringTransaction recurring : dueTransactions) {
-            // Create actual transaction
-            Transaction transaction = new Transaction();
-            transaction.setUser(recurring.getUser());
-            transaction.setAccount(recurring.getAccount());
-            transaction.setCategory(recurring.getCategory());
-            transaction.setType(Transaction.TransactionType.valueOf(recurring.getType().name()));
-            transaction.setAmount(recurring.getAmount());
-            transaction.setTransactionDate(recurring.getNextOccurrence());
-            transaction.setDescription(recurring.getDescription());
-            transaction.setNotes("Auto-generated from recurring transaction: " + recurring.getTitle());
-
-            transactionService.createTransaction(transaction);
-
-            // Update next occurrence
-            LocalDate nextOccurrence = calculateNextOccurrence(recurring.getNextOccurrence(), recurring.getFrequency());
-
-            // Check if we've passed the end date
-            if (recurring.getEndDate() != null && nextOccurrence.isAfter(recurring.getEndDate())) {
-                recurring.setIsActive(false);
-            } else {
-                recurring.setNextOccurrence(nextOccurrence);
-            }
-
-            recurringTransactionRepository.save(recurring);
-        }
-    }
-
-    private LocalDate calculateNextOccurrence(LocalDate currentDate, RecurringTransaction.Frequency frequency) {
-        if (frequency == RecurringTransaction.Frequency.DAILY) {
-            return currentDate.plusDays(1);
-        } else if (frequency == RecurringTransaction.Frequency.WEEKLY) {
-            return currentDate.plusWeeks(1);
-        } else if (frequency == RecurringTransaction.Frequency.MONTHLY) {
-            return currentDate.plusMonths(1);
-        } else if (frequency == RecurringTransaction.Frequency.YEARLY) {
-            return currentDate.plusYears(1);
-        }
-        return currentDate;
+        recurringTransactionScheduler.processAllDue();
     }
-}
\ No newline at end of file
+}
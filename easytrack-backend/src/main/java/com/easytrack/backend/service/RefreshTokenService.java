@@ -0,0 +1,121 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardRouter;
+import com.easytrack.backend.entity.RefreshToken;
+import com.easytrack.backend.entity.User;
+import com.easytrack.backend.exception.UnauthorizedException;
+import com.easytrack.backend.repository.RefreshTokenRepository;
+import com.easytrack.backend.repository.UserRepository;
+import com.easytrack.backend.security.UserStatusCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
+    private final ShardRouter shardRouter;
+
+    @Value("${jwt.refresh-expiration:30d}")
+    private Duration refreshExpiration;
+
+    public record RotatedToken(User user, String refreshToken) {
+    }
+
+    // Tokens start with the user id so the user's shard is known before the token is looked up
+    public static Long userIdOf(String rawToken) {
+        int separator = rawToken != null ? rawToken.indexOf('.') : -1;
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            return Long.valueOf(rawToken.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String issue(Long userId) {
+        return issue(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
+
+    // A used token presented again means it leaked, so the whole family is revoked
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public RotatedToken rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (token.getUsedAt() != null || token.getRevokedAt() != null) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            throw new UnauthorizedException("Refresh token has already been used");
+        }
+        if (token.getExpiresAt().isBefore(now)) {
+            throw new UnauthorizedException("Refresh token has expired");
+        }
+        User user = token.getUser();
+        if (!userStatusCache.isActive(user.getId())) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            throw new UnauthorizedException("User account is not active");
+        }
+
+        token.setUsedAt(now);
+        return new RotatedToken(user, issue(user, token.getFamilyId()));
+    }
+
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Scheduled(cron = "${jwt.refresh-purge-cron:0 15 4 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        shardRouter.forEachShard(() -> refreshTokenRepository.deleteExpired(now));
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = user.getId() + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plus(refreshExpiration));
+        refreshTokenRepository.save(token);
+
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
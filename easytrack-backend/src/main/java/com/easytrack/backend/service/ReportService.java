@@ -0,0 +1,79 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.dto.ReportDTO;
+import com.easytrack.backend.dto.ReportDTO.*;
+import com.easytrack.backend.entity.Category;
+import com.easytrack.backend.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReportService {
+
+    // Upper bound for lifetime reports so future-dated transactions are included
+    private static final YearMonth LAST_MONTH = YearMonth.of(9999, 12);
+
+    private final TransactionSegmentStore segmentStore;
+    private final CategoryService categoryService;
+
+    public ReportDTO getYearlyReport(Long userId, int year) {
+        if (year < 1900 || year > LAST_MONTH.getYear()) {
+            throw new BadRequestException("Invalid report year: " + year);
+        }
+        return buildReport(userId, YearMonth.of(year, 1), YearMonth.of(year, 12));
+    }
+
+    public ReportDTO getLifetimeReport(Long userId) {
+        LocalDate firstDate = segmentStore.findFirstTransactionDate(userId);
+        YearMonth from = firstDate != null ? YearMonth.from(firstDate) : YearMonth.now();
+        return buildReport(userId, from, LAST_MONTH);
+    }
+
+    private ReportDTO buildReport(Long userId, YearMonth from, YearMonth to) {
+        // Totals are accumulated in minor units and only converted once at the end
+        Map<YearMonth, long[]> byMonth = new TreeMap<>();
+        Map<Long, long[]> byCategory = new HashMap<>();
+        long[] totals = new long[3];
+
+        segmentStore.scan(userId, from, to, (epochDay, amountMinor, income, categoryId) -> {
+            int column = income ? 0 : 1;
+            byMonth.computeIfAbsent(YearMonth.from(LocalDate.ofEpochDay(epochDay)), month -> new long[2])[column] += amountMinor;
+            byCategory.computeIfAbsent(categoryId, id -> new long[2])[column] += amountMinor;
+            totals[column] += amountMinor;
+            totals[2]++;
+        });
+
+        Map<Long, String> categoryNames = categoryService.getCategoriesByUserId(userId).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+
+        List<MonthTotal> months = new ArrayList<>();
+        byMonth.forEach((month, sums) -> months.add(new MonthTotal(month.toString(), toAmount(sums[0]), toAmount(sums[1]))));
+
+        List<CategoryTotal> categories = byCategory.entrySet().stream()
+                .map(entry -> new CategoryTotal(entry.getKey(), categoryNames.get(entry.getKey()),
+                        toAmount(entry.getValue()[0]), toAmount(entry.getValue()[1])))
+                .sorted((a, b) -> b.getExpense().compareTo(a.getExpense()))
+                .toList();
+
+        LocalDate endDate = to.equals(LAST_MONTH) ? LocalDate.now() : to.atEndOfMonth();
+        return new ReportDTO(from.atDay(1), endDate, toAmount(totals[0]), toAmount(totals[1]),
+                toAmount(totals[0] - totals[1]), totals[2], months, categories);
+    }
+
+    private BigDecimal toAmount(long amountMinor) {
+        return BigDecimal.valueOf(amountMinor, 2);
+    }
+}
@@ -0,0 +1,91 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.entity.SchedulerLease;
+import com.easytrack.backend.repository.SchedulerLeaseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+public class SchedulerLeaseService {
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+
+    public SchedulerLeaseService(SchedulerLeaseRepository leaseRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${scheduler.node-id:}") String nodeId) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(duration);
+
+        Integer claimed = transactionTemplate.execute(status ->
+                leaseRepository.claim(name, nodeId, now, expiresAt));
+        if (claimed != null && claimed > 0) {
+            return true;
+        }
+
+        // First use of this lease name: whoever inserts the row first owns it
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!leaseRepository.existsById(name)) {
+                    leaseRepository.saveAndFlush(new SchedulerLease(name, nodeId, expiresAt, null));
+                } else {
+                    status.setRollbackOnly();
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+
+        return leaseRepository.findById(name)
+                .map(lease -> nodeId.equals(lease.getOwner()))
+                .orElse(false);
+    }
+
+    public boolean runWithLease(String name, Duration duration, Runnable task) {
+        if (!tryAcquire(name, duration)) {
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            release(name);
+        }
+        return true;
+    }
+
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status ->
+                leaseRepository.release(name, nodeId, LocalDateTime.now()));
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,292 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardDirectory;
+import com.easytrack.backend.config.ShardRoutingDataSource;
+import com.easytrack.backend.event.UserShardMovedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Moves users between shards while the application keeps serving everyone else.
+// A move marks the user MIGRATING (their requests get 503 + Retry-After), waits for directory
+// caches and in-flight requests to drain, then copies the user's rows to the target shard and
+// deletes them from the source inside one source transaction that holds the user's account rows
+// locked. Every balance-changing write locks an account row, so none can slip in between copy
+// and delete. The directory only points at the target once the source delete has committed; until
+// then the user stays MIGRATING, so no request can write to either copy. Ids are unique across
+// shards, so rows are copied unchanged.
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "datasource.shards.enabled", havingValue = "true")
+public class ShardMigrationService {
+
+    private record UserTable(String table, String predicate, boolean keepIds) {
+    }
+
+    // Parents before children; deletes run in reverse
+    private static final List<UserTable> USER_TABLES = List.of(
+            new UserTable("users", "id = ?", true),
+            new UserTable("accounts", "user_id = ?", true),
+            new UserTable("categories", "user_id = ?", true),
+            new UserTable("transactions", "user_id = ?", true),
+            new UserTable("transactions_archive", "user_id = ?", true),
+            new UserTable("budgets", "user_id = ?", true),
+            new UserTable("recurring_transactions", "user_id = ?", true),
+            new UserTable("recurring_occurrences",
+                    "recurring_transaction_id IN (SELECT id FROM recurring_transactions WHERE user_id = ?)", true),
+            new UserTable("transaction_patterns", "user_id = ?", true),
+            new UserTable("user_data_versions", "user_id = ?", true),
+            new UserTable("transaction_month_versions", "user_id = ?", true),
+            new UserTable("change_log", "user_id = ?", true),
+            new UserTable("idempotency_keys", "user_id = ?", true),
+            // refresh_tokens ids are per-shard AUTO_INCREMENT values, so the target assigns new ones
+            new UserTable("refresh_tokens", "user_id = ?", false)
+    );
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ShardRoutingDataSource shards;
+    private final ShardDirectory directory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration drain;
+    private final ExecutorService splitExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-split");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean splitRunning = new AtomicBoolean();
+    private final AtomicInteger splitRemaining = new AtomicInteger();
+
+    public ShardMigrationService(ShardRoutingDataSource shards,
+                                 ShardDirectory directory,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${datasource.shards.migration.drain:15s}") Duration drain) {
+        this.shards = shards;
+        this.directory = directory;
+        this.eventPublisher = eventPublisher;
+        this.drain = drain;
+    }
+
+    public boolean isSplitRunning() {
+        return splitRunning.get();
+    }
+
+    public int getSplitRemaining() {
+        return splitRemaining.get();
+    }
+
+    // Moves every user of the source shard whose id hashes to the upper half onto the target shard
+    public int split(int sourceShard, int targetShard) {
+        checkShards(sourceShard, targetShard);
+        if (!splitRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("A shard split is already running");
+        }
+        List<Long> userIds = directory.findUserIds(sourceShard).stream()
+                .filter(userId -> (mix(userId) & 1) == 1)
+                .toList();
+        splitRemaining.set(userIds.size());
+        log.info("Splitting shard {}: moving {} users to shard {}", sourceShard, userIds.size(), targetShard);
+
+        splitExecutor.submit(() -> {
+            try {
+                for (Long userId : userIds) {
+                    try {
+                        moveUser(userId, targetShard);
+                    } catch (RuntimeException e) {
+                        log.error("Failed to move user {} to shard {}", userId, targetShard, e);
+                    }
+                    splitRemaining.decrementAndGet();
+                }
+                log.info("Split of shard {} into shard {} finished", sourceShard, targetShard);
+            } finally {
+                splitRunning.set(false);
+            }
+        });
+        return userIds.size();
+    }
+
+    public Map<String, Integer> moveUser(Long userId, int targetShard) {
+        ShardDirectory.Placement placement = directory.findByUserId(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User " + userId + " is not in the shard directory"));
+        int sourceShard = placement.shard();
+        checkShards(sourceShard, targetShard);
+
+        DataSource source = shards.getShard(sourceShard);
+        DataSource target = shards.getShard(targetShard);
+        JdbcTemplate sourceJdbc = new JdbcTemplate(source);
+        JdbcTemplate targetJdbc = new JdbcTemplate(target);
+
+        // An earlier move committed the source delete but failed to update the directory
+        if (placement.status() == ShardDirectory.Status.MIGRATING && !hasUser(sourceJdbc, userId)
+                && hasUser(targetJdbc, userId)) {
+            finishMove(userId, targetShard, targetJdbc);
+            log.info("Finished interrupted move of user {} to shard {}", userId, targetShard);
+            return Map.of();
+        }
+
+        directory.update(userId, sourceShard, ShardDirectory.Status.MIGRATING);
+        try {
+            Thread.sleep(drain.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            directory.update(userId, sourceShard, ShardDirectory.Status.ACTIVE);
+            throw new IllegalStateException("Interrupted while draining user " + userId, e);
+        }
+
+        Map<String, Integer> copied = new LinkedHashMap<>();
+
+        try {
+            new TransactionTemplate(new DataSourceTransactionManager(source)).executeWithoutResult(sourceStatus -> {
+                sourceJdbc.queryForList("SELECT id FROM accounts WHERE user_id = ? FOR UPDATE", Long.class, userId);
+
+                Map<UserTable, List<Object[]>> rows = new LinkedHashMap<>();
+                Map<UserTable, List<String>> columns = new LinkedHashMap<>();
+                for (UserTable table : USER_TABLES) {
+                    read(sourceJdbc, table, userId, rows, columns);
+                }
+
+                new TransactionTemplate(new DataSourceTransactionManager(target)).executeWithoutResult(targetStatus -> {
+                    // Leftovers of an earlier failed attempt
+                    delete(targetJdbc, userId);
+                    for (UserTable table : USER_TABLES) {
+                        copied.put(table.table(), insert(targetJdbc, table, columns.get(table), rows.get(table)));
+                    }
+                });
+
+                delete(sourceJdbc, userId);
+            });
+        } catch (RuntimeException e) {
+            abortMove(userId, sourceShard, targetShard, sourceJdbc, targetJdbc);
+            throw e;
+        }
+
+        // The rows now exist only on the target; if this fails the user stays MIGRATING and
+        // the next moveUser call finishes the move
+        finishMove(userId, targetShard, targetJdbc);
+
+        log.info("Moved user {} from shard {} to shard {}: {}", userId, sourceShard, targetShard, copied);
+        return copied;
+    }
+
+    private void finishMove(Long userId, int targetShard, JdbcTemplate targetJdbc) {
+        directory.update(userId, targetShard, ShardDirectory.Status.ACTIVE);
+        List<Long> recurringTransactionIds = targetJdbc.queryForList(
+                "SELECT id FROM recurring_transactions WHERE user_id = ?", Long.class, userId);
+        eventPublisher.publishEvent(new UserShardMovedEvent(userId, targetShard, recurringTransactionIds));
+    }
+
+    // Drops the target copy and reopens the user on the source, unless the source delete
+    // committed after all (a failed commit acknowledgement), in which case the target copy
+    // is the only one and the user stays MIGRATING
+    private void abortMove(Long userId, int sourceShard, int targetShard,
+                           JdbcTemplate sourceJdbc, JdbcTemplate targetJdbc) {
+        try {
+            if (!hasUser(sourceJdbc, userId)) {
+                log.error("User {} is no longer on shard {} after a failed move; left MIGRATING, " +
+                        "retry the move to shard {}", userId, sourceShard, targetShard);
+                return;
+            }
+            new TransactionTemplate(new DataSourceTransactionManager(targetJdbc.getDataSource()))
+                    .executeWithoutResult(status -> delete(targetJdbc, userId));
+            directory.update(userId, sourceShard, ShardDirectory.Status.ACTIVE);
+        } catch (RuntimeException e) {
+            log.error("Could not clean up failed move of user {} to shard {}; left MIGRATING", userId, targetShard, e);
+        }
+    }
+
+    private boolean hasUser(JdbcTemplate jdbc, Long userId) {
+        return !jdbc.queryForList("SELECT id FROM users WHERE id = ?", Long.class, userId).isEmpty();
+    }
+
+    private void read(JdbcTemplate jdbc, UserTable table, Long userId,
+                      Map<UserTable, List<Object[]>> rows, Map<UserTable, List<String>> columns) {
+        List<Object[]> tableRows = new ArrayList<>();
+        List<String> tableColumns = new ArrayList<>();
+        jdbc.query("SELECT * FROM " + table.table() + " WHERE " + table.predicate(), rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            if (tableColumns.isEmpty()) {
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    tableColumns.add(meta.getColumnName(i));
+                }
+            }
+            Object[] row = new Object[tableColumns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            tableRows.add(row);
+        }, userId);
+
+        if (!table.keepIds() && !tableColumns.isEmpty()) {
+            int idIndex = tableColumns.indexOf("id");
+            tableColumns.remove(idIndex);
+            tableRows.replaceAll(row -> {
+                Object[] withoutId = new Object[row.length - 1];
+                System.arraycopy(row, 0, withoutId, 0, idIndex);
+                System.arraycopy(row, idIndex + 1, withoutId, idIndex, row.length - idIndex - 1);
+                return withoutId;
+            });
+        }
+        rows.put(table, tableRows);
+        columns.put(table, tableColumns);
+    }
+
+    private int insert(JdbcTemplate jdbc, UserTable table, List<String> columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO " + table.table() + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        return rows.size();
+    }
+
+    private void delete(JdbcTemplate jdbc, Long userId) {
+        for (int i = USER_TABLES.size() - 1; i >= 0; i--) {
+            UserTable table = USER_TABLES.get(i);
+            jdbc.update("DELETE FROM " + table.table() + " WHERE " + table.predicate(), userId);
+        }
+    }
+
+    private void checkShards(int sourceShard, int targetShard) {
+        int count = shards.getShardCount();
+        if (sourceShard < 0 || sourceShard >= count || targetShard < 0 || targetShard >= count) {
+            throw new IllegalArgumentException("Shards must be between 0 and " + (count - 1));
+        }
+        if (sourceShard == targetShard) {
+            throw new IllegalArgumentException("Source and target shard are the same");
+        }
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        splitExecutor.shutdownNow();
+    }
+}
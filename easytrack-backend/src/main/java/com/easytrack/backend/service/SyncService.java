@@ -0,0 +1,200 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.dto.SyncChangesDTO;
+import com.easytrack.backend.entity.Account;
+import com.easytrack.backend.entity.Budget;
+import com.easytrack.backend.entity.Category;
+import com.easytrack.backend.entity.RecurringTransaction;
+import com.easytrack.backend.entity.Transaction;
+import com.easytrack.backend.exception.BadRequestException;
+import com.easytrack.backend.exception.SyncTokenExpiredException;
+import com.easytrack.backend.mapper.AccountMapper;
+import com.easytrack.backend.mapper.BudgetMapper;
+import com.easytrack.backend.mapper.CategoryMapper;
+import com.easytrack.backend.mapper.RecurringTransactionMapper;
+import com.easytrack.backend.mapper.TransactionMapper;
+import com.easytrack.backend.repository.AccountRepository;
+import com.easytrack.backend.repository.BudgetRepository;
+import com.easytrack.backend.repository.CategoryRepository;
+import com.easytrack.backend.repository.RecurringTransactionRepository;
+import com.easytrack.backend.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Delta sync over the change log. The sync token is the user's data version; everything runs in
+// one read-only transaction, so the version, the log rows and the entities come from the same
+// snapshot. Without a token the full data set is returned as the starting point.
+@Service
+@Transactional(readOnly = true)
+public class SyncService {
+
+    private final DataVersionService dataVersionService;
+    private final ChangeLogService changeLogService;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final CategoryRepository categoryRepository;
+    private final BudgetRepository budgetRepository;
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final AccountMapper accountMapper;
+    private final CategoryMapper categoryMapper;
+    private final BudgetMapper budgetMapper;
+    private final RecurringTransactionMapper recurringTransactionMapper;
+    private final int maxChanges;
+
+    public SyncService(DataVersionService dataVersionService,
+                       ChangeLogService changeLogService,
+                       TransactionRepository transactionRepository,
+                       AccountRepository accountRepository,
+                       CategoryRepository categoryRepository,
+                       BudgetRepository budgetRepository,
+                       RecurringTransactionRepository recurringTransactionRepository,
+                       TransactionMapper transactionMapper,
+                       AccountMapper accountMapper,
+                       CategoryMapper categoryMapper,
+                       BudgetMapper budgetMapper,
+                       RecurringTransactionMapper recurringTransactionMapper,
+                       @Value("${sync.max-changes:1000}") int maxChanges) {
+        this.dataVersionService = dataVersionService;
+        this.changeLogService = changeLogService;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.categoryRepository = categoryRepository;
+        this.budgetRepository = budgetRepository;
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.transactionMapper = transactionMapper;
+        this.accountMapper = accountMapper;
+        this.categoryMapper = categoryMapper;
+        this.budgetMapper = budgetMapper;
+        this.recurringTransactionMapper = recurringTransactionMapper;
+        this.maxChanges = maxChanges;
+    }
+
+    public SyncChangesDTO getChanges(Long userId, String since) {
+        long current = dataVersionService.getVersion(userId);
+        if (since == null || since.isBlank()) {
+            return snapshot(userId, current);
+        }
+
+        long sinceVersion = parseToken(since, current);
+        if (sinceVersion < dataVersionService.getLogFloor(userId)) {
+            throw new SyncTokenExpiredException("Sync token has expired, sync again without a token");
+        }
+
+        // Pages end on a version boundary so a client never applies half of a transaction
+        List<ChangeLogService.Change> changes = changeLogService.findSince(userId, sinceVersion, maxChanges + 1);
+        long token = current;
+        boolean hasMore = false;
+        if (changes.size() > maxChanges) {
+            long cut = changes.get(maxChanges).version();
+            if (changes.get(0).version() == cut) {
+                changes = changeLogService.findByVersion(userId, cut);
+                token = cut;
+            } else {
+                changes = changes.stream().filter(change -> change.version() < cut).toList();
+                token = changes.get(changes.size() - 1).version();
+            }
+            hasMore = token < current;
+        }
+
+        // Only the last operation on each entity matters
+        Map<ChangeLogService.EntityType, Map<Long, ChangeLogService.Operation>> latest =
+                new EnumMap<>(ChangeLogService.EntityType.class);
+        for (ChangeLogService.Change change : changes) {
+            latest.computeIfAbsent(change.entityType(), type -> new LinkedHashMap<>())
+                    .put(change.entityId(), change.operation());
+        }
+
+        List<SyncChangesDTO.Tombstone> deleted = new ArrayList<>();
+        SyncChangesDTO result = new SyncChangesDTO();
+        result.setToken(String.valueOf(token));
+        result.setHasMore(hasMore);
+        result.setTransactions(load(latest, ChangeLogService.EntityType.TRANSACTION, deleted,
+                ids -> transactionRepository.findHistoryByUserIdAndIdIn(userId, ids),
+                Transaction::getId, transactionMapper::toDTO));
+        result.setAccounts(load(latest, ChangeLogService.EntityType.ACCOUNT, deleted,
+                ids -> accountRepository.findByUserIdAndIdIn(userId, ids),
+                Account::getId, accountMapper::toDTO));
+        result.setCategories(load(latest, ChangeLogService.EntityType.CATEGORY, deleted,
+                ids -> categoryRepository.findByUserIdAndIdIn(userId, ids),
+                Category::getId, categoryMapper::toDTO));
+        result.setBudgets(load(latest, ChangeLogService.EntityType.BUDGET, deleted,
+                ids -> budgetRepository.findByUserIdAndIdIn(userId, ids),
+                Budget::getId, budgetMapper::toDTO));
+        result.setRecurringTransactions(load(latest, ChangeLogService.EntityType.RECURRING_TRANSACTION, deleted,
+                ids -> recurringTransactionRepository.findByUserIdAndIdIn(userId, ids),
+                RecurringTransaction::getId, recurringTransactionMapper::toDTO));
+        result.setDeleted(deleted);
+        return result;
+    }
+
+    private SyncChangesDTO snapshot(Long userId, long current) {
+        return new SyncChangesDTO(
+                String.valueOf(current),
+                false,
+                transactionRepository.findHistoryByUserId(userId).stream().map(transactionMapper::toDTO).toList(),
+                accountRepository.findByUserId(userId).stream().map(accountMapper::toDTO).toList(),
+                categoryRepository.findByUserId(userId).stream().map(categoryMapper::toDTO).toList(),
+                budgetRepository.findByUserId(userId).stream().map(budgetMapper::toDTO).toList(),
+                recurringTransactionRepository.findByUserId(userId).stream()
+                        .map(recurringTransactionMapper::toDTO).toList(),
+                List.of()
+        );
+    }
+
+    // Upserted entities are loaded as they are now; one that no longer exists became a tombstone
+    // in a later version and is reported as deleted here already
+    private <E, D> List<D> load(Map<ChangeLogService.EntityType, Map<Long, ChangeLogService.Operation>> latest,
+                                ChangeLogService.EntityType type,
+                                List<SyncChangesDTO.Tombstone> deleted,
+                                Function<Collection<Long>, List<E>> finder,
+                                Function<E, Long> idOf,
+                                Function<E, D> toDTO) {
+        Map<Long, ChangeLogService.Operation> operations = latest.getOrDefault(type, Map.of());
+        Set<Long> upserted = new HashSet<>();
+        operations.forEach((id, operation) -> {
+            if (operation == ChangeLogService.Operation.UPSERT) {
+                upserted.add(id);
+            } else {
+                deleted.add(new SyncChangesDTO.Tombstone(type.name(), id));
+            }
+        });
+        if (upserted.isEmpty()) {
+            return List.of();
+        }
+
+        List<D> dtos = new ArrayList<>();
+        Set<Long> found = new HashSet<>();
+        for (E entity : finder.apply(upserted)) {
+            found.add(idOf.apply(entity));
+            dtos.add(toDTO.apply(entity));
+        }
+        upserted.stream()
+                .filter(id -> !found.contains(id))
+                .forEach(id -> deleted.add(new SyncChangesDTO.Tombstone(type.name(), id)));
+        return dtos;
+    }
+
+    private static long parseToken(String token, long current) {
+        try {
+            long version = Long.parseLong(token);
+            if (version >= 0 && version <= current) {
+                return version;
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through
+        }
+        throw new BadRequestException("Invalid sync token");
+    }
+}
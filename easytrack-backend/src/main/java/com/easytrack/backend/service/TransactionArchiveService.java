@@ -0,0 +1,174 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Maintains the yearly partitions of transactions: adds next year's partition ahead of time
+// and moves partitions older than the hot horizon into transactions_archive.
+// Partition DDL commits implicitly, so every step is written to be safe to repeat.
+@Slf4j
+@Service
+public class TransactionArchiveService {
+
+    private static final String LEASE_NAME = "transactions-archive";
+    private static final String OVERFLOW_PARTITION = "pmax";
+    private static final String STAGING_TABLE = "transactions_archive_staging";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeaseService leaseService;
+    private final ShardRouter shardRouter;
+    private final int hotYears;
+    private final Duration leaseDuration;
+
+    public TransactionArchiveService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     SchedulerLeaseService leaseService,
+                                     ShardRouter shardRouter,
+                                     @Value("${transactions.archive.hot-years:3}") int hotYears,
+                                     @Value("${transactions.archive.lease-duration:1h}") Duration leaseDuration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseService = leaseService;
+        this.shardRouter = shardRouter;
+        this.hotYears = hotYears;
+        this.leaseDuration = leaseDuration;
+    }
+
+    @Scheduled(cron = "${transactions.archive.cron:0 0 2 * * *}")
+    public void maintainPartitions() {
+        leaseService.runWithLease(LEASE_NAME, leaseDuration, () -> shardRouter.forEachShard(() -> {
+            LocalDate today = LocalDate.now();
+            addPartitionsThrough(today.getYear() + 1);
+            archiveBefore(LocalDate.of(today.getYear() - hotYears + 1, 1, 1));
+        }));
+    }
+
+    // Splits the overflow partition so inserts for the coming year land in their own partition
+    void addPartitionsThrough(int year) {
+        List<Map<String, Object>> partitions = partitions();
+        if (partitions.isEmpty()) {
+            return;
+        }
+        int lastYear = partitions.stream()
+                .map(partition -> String.valueOf(partition.get("partition_name")))
+                .filter(name -> !OVERFLOW_PARTITION.equals(name))
+                .mapToInt(name -> Integer.parseInt(name.substring(1)))
+                .max()
+                .orElse(year - 1);
+
+        for (int next = lastYear + 1; next <= year; next++) {
+            jdbcTemplate.execute("ALTER TABLE transactions REORGANIZE PARTITION " + OVERFLOW_PARTITION + " INTO ("
+                    + "PARTITION p" + next + " VALUES LESS THAN ('" + (next + 1) + "-01-01'), "
+                    + "PARTITION " + OVERFLOW_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            log.info("Added transactions partition p{}", next);
+        }
+    }
+
+    // Moves whole partitions ending on or before the cutoff to the archive, then moves any older
+    // rows written later (they land in the oldest remaining partition). Each partition is swapped
+    // out with EXCHANGE PARTITION, which is atomic, so the bulk copy to the archive never races
+    // with writers; only rows written after the swap are copied with writes blocked, just before
+    // the partition is dropped.
+    void archiveBefore(LocalDate cutoff) {
+        // Rows left in staging by an interrupted run
+        int resumed = appendStaging();
+        if (resumed > 0) {
+            log.info("Archived {} transactions left in {}", resumed, STAGING_TABLE);
+        }
+
+        for (Map<String, Object> partition : partitions()) {
+            String name = String.valueOf(partition.get("partition_name"));
+            if (OVERFLOW_PARTITION.equals(name) || upperBound(partition).isAfter(cutoff)) {
+                continue;
+            }
+            createStaging();
+            jdbcTemplate.execute("ALTER TABLE transactions EXCHANGE PARTITION " + name + " WITH TABLE " + STAGING_TABLE);
+            int copied = appendStaging();
+            int late = dropPartition(name);
+            log.info("Archived transactions partition {} ({} rows, {} written during the move)", name, copied, late);
+        }
+
+        // One transaction: the copy locks the range, so nothing can slip in before the delete
+        Integer moved = transactionTemplate.execute(status -> {
+            int copied = jdbcTemplate.update(
+                    "INSERT IGNORE INTO transactions_archive SELECT * FROM transactions WHERE transaction_date < ?",
+                    cutoff);
+            jdbcTemplate.update("DELETE FROM transactions WHERE transaction_date < ?", cutoff);
+            return copied;
+        });
+        if (moved != null && moved > 0) {
+            log.info("Archived {} late transactions dated before {}", moved, cutoff);
+        }
+    }
+
+    // An unpartitioned copy of transactions, as EXCHANGE PARTITION requires identical structure
+    private void createStaging() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + STAGING_TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + STAGING_TABLE + " LIKE transactions");
+        jdbcTemplate.execute("ALTER TABLE " + STAGING_TABLE + " REMOVE PARTITIONING");
+    }
+
+    // The staging table is only dropped once its rows are in the archive; INSERT IGNORE makes a
+    // repeated append harmless. The staged months are bumped in transaction_month_versions, as
+    // report segments built while the rows sat in staging are missing them.
+    private int appendStaging() {
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class, STAGING_TABLE);
+        if (exists == null || exists == 0) {
+            return 0;
+        }
+        int copied = jdbcTemplate.update("INSERT IGNORE INTO transactions_archive SELECT * FROM " + STAGING_TABLE);
+        jdbcTemplate.update("INSERT INTO transaction_month_versions (user_id, month, version) " +
+                "SELECT user_id, DATE_FORMAT(transaction_date, '%Y-%m-01'), 1 FROM " + STAGING_TABLE +
+                " GROUP BY user_id, DATE_FORMAT(transaction_date, '%Y-%m-01') " +
+                "ON DUPLICATE KEY UPDATE version = transaction_month_versions.version + 1");
+        jdbcTemplate.execute("DROP TABLE " + STAGING_TABLE);
+        return copied;
+    }
+
+    // Writes are blocked from the last copy until the partition is gone, so no row can be dropped
+    // with it. Both statements need the same connection for the table locks.
+    private int dropPartition(String name) {
+        Integer late = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOCK TABLES transactions WRITE, transactions_archive WRITE");
+                try {
+                    int copied = statement.executeUpdate(
+                            "INSERT IGNORE INTO transactions_archive SELECT * FROM transactions PARTITION (" + name + ")");
+                    statement.execute("ALTER TABLE transactions DROP PARTITION " + name);
+                    return copied;
+                } finally {
+                    statement.execute("UNLOCK TABLES");
+                }
+            }
+        });
+        return late != null ? late : 0;
+    }
+
+    private List<Map<String, Object>> partitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT partition_name, partition_description FROM information_schema.partitions " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'transactions' " +
+                        "AND partition_name IS NOT NULL ORDER BY partition_ordinal_position");
+    }
+
+    private static LocalDate upperBound(Map<String, Object> partition) {
+        String description = String.valueOf(partition.get("partition_description")).replace("'", "");
+        return LocalDate.parse(description);
+    }
+}
@@ -0,0 +1,267 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.event.TransactionChangedEvent;
+import com.easytrack.backend.util.TransactionSegmentCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Keeps closed months of each user's transactions as columnar segment files on local disk
+// (<directory>/<userId>/<yyyy-MM>.<version>.seg) so long-range reports scan memory-mapped files instead of MySQL.
+// The version is the month's row in transaction_month_versions, bumped in the same database transaction
+// as every change to a transaction in that month, so a change made through any node makes the old
+// segment unreachable and the next read rebuilds it. Months before the user's first transaction are
+// never built.
+@Slf4j
+@Service
+public class TransactionSegmentStore {
+
+    private static final String ROWS_SQL = "SELECT transaction_date, amount, type, category_id FROM (" +
+            "SELECT transaction_date, amount, type, category_id FROM transactions " +
+            "WHERE user_id = ? AND transaction_date BETWEEN ? AND ? " +
+            "UNION ALL SELECT transaction_date, amount, type, category_id FROM transactions_archive " +
+            "WHERE user_id = ? AND transaction_date BETWEEN ? AND ?) history ORDER BY transaction_date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+    private final Duration idleRetention;
+
+    public TransactionSegmentStore(JdbcTemplate jdbcTemplate,
+                                   @Value("${reports.segments.directory:${java.io.tmpdir}/easytrack-segments}") Path directory,
+                                   @Value("${reports.segments.idle-retention:30d}") Duration idleRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = directory;
+        this.idleRetention = idleRetention;
+    }
+
+    // Closed months come from segments; the open month onwards is always read from MySQL
+    public void scan(Long userId, YearMonth from, YearMonth to, TransactionSegmentCodec.RowVisitor visitor) {
+        YearMonth openMonth = YearMonth.now();
+        LocalDate firstDate = findFirstTransactionDate(userId);
+        if (firstDate == null) {
+            return;
+        }
+        YearMonth firstMonth = YearMonth.from(firstDate);
+        YearMonth start = from.isBefore(firstMonth) ? firstMonth : from;
+
+        if (start.isBefore(openMonth) && !start.isAfter(to)) {
+            YearMonth lastClosed = to.isBefore(openMonth) ? to : openMonth.minusMonths(1);
+            // Read before the rows, so a segment is never labelled with a version newer than its contents
+            Map<YearMonth, Long> versions = findMonthVersions(userId, start, lastClosed);
+            touch(userId);
+            for (YearMonth month = start; !month.isAfter(lastClosed); month = month.plusMonths(1)) {
+                scanSegment(userId, month, versions.getOrDefault(month, 0L), visitor);
+            }
+        }
+        if (!to.isBefore(openMonth)) {
+            YearMonth openStart = start.isAfter(openMonth) ? start : openMonth;
+            queryRows(userId, openStart.atDay(1), to.atEndOfMonth()).forEach(row ->
+                    visitor.visit(row.epochDay(), row.amountMinor(), row.income(), row.categoryId()));
+        }
+    }
+
+    public LocalDate findFirstTransactionDate(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT MIN(first_date) FROM (" +
+                        "SELECT MIN(transaction_date) AS first_date FROM transactions WHERE user_id = ? " +
+                        "UNION ALL SELECT MIN(transaction_date) FROM transactions_archive WHERE user_id = ?) history",
+                LocalDate.class, userId, userId);
+    }
+
+    // Runs inside the writing transaction, so the bump commits or rolls back with the change.
+    // The open month is bumped too: a change committing just after midnight on the 1st must
+    // still invalidate a segment built for the month that has just closed.
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        bump(event.getUserId(), event.getTransactionDate());
+        if (event.getPreviousTransactionDate() != null
+                && !YearMonth.from(event.getPreviousTransactionDate()).equals(YearMonth.from(event.getTransactionDate()))) {
+            bump(event.getUserId(), event.getPreviousTransactionDate());
+        }
+    }
+
+    // Removes a deleted user's segments on this node once the deletion commits; other nodes
+    // drop them with the idle cleanup
+    public void deleteUserAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteUserSegments(directory.resolve(String.valueOf(userId)));
+                }
+            });
+        } else {
+            deleteUserSegments(directory.resolve(String.valueOf(userId)));
+        }
+    }
+
+    // Segments are rebuilt on demand, so dropping those of users who have not run a report for a
+    // while is always safe; this also clears users deleted through another node
+    @Scheduled(cron = "${reports.segments.cleanup-cron:0 30 3 * * *}")
+    public void deleteIdleSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(idleRetention);
+        int removed = 0;
+        try (DirectoryStream<Path> users = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path userDirectory : users) {
+                if (Files.getLastModifiedTime(userDirectory).toInstant().isBefore(cutoff)) {
+                    deleteUserSegments(userDirectory);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up transaction segments in {}", directory, e);
+        }
+        if (removed > 0) {
+            log.info("Removed transaction segments of {} idle users", removed);
+        }
+    }
+
+    private void bump(Long userId, LocalDate date) {
+        jdbcTemplate.update("INSERT INTO transaction_month_versions (user_id, month, version) VALUES (?, ?, 1) " +
+                "ON DUPLICATE KEY UPDATE version = version + 1", userId, YearMonth.from(date).atDay(1));
+    }
+
+    private Map<YearMonth, Long> findMonthVersions(Long userId, YearMonth from, YearMonth to) {
+        Map<YearMonth, Long> versions = new HashMap<>();
+        jdbcTemplate.query("SELECT month, version FROM transaction_month_versions " +
+                        "WHERE user_id = ? AND month BETWEEN ? AND ?",
+                rs -> {
+                    versions.put(YearMonth.from(rs.getObject("month", LocalDate.class)), rs.getLong("version"));
+                },
+                userId, from.atDay(1), to.atDay(1));
+        return versions;
+    }
+
+    private void scanSegment(Long userId, YearMonth month, long version, TransactionSegmentCodec.RowVisitor visitor) {
+        Path path = segmentPath(userId, month, version);
+        ByteBuffer segment;
+        try {
+            segment = Files.exists(path) ? map(path) : build(userId, month, path);
+        } catch (IOException e) {
+            log.warn("Transaction segment {} unavailable, querying the database instead", path, e);
+            segment = TransactionSegmentCodec.encode(month.atDay(1).toEpochDay(),
+                    queryRows(userId, month.atDay(1), month.atEndOfMonth()));
+        }
+        try {
+            TransactionSegmentCodec.scan(segment, visitor);
+        } catch (RuntimeException e) {
+            // Drop a corrupt segment so the next read rebuilds it
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException deleteFailure) {
+                log.warn("Failed to delete corrupt transaction segment {}", path, deleteFailure);
+            }
+            throw e;
+        }
+    }
+
+    private ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // Returns the freshly encoded segment; publishing it to disk is best effort
+    private ByteBuffer build(Long userId, YearMonth month, Path path) {
+        List<TransactionSegmentCodec.Row> rows = queryRows(userId, month.atDay(1), month.atEndOfMonth());
+        ByteBuffer encoded = TransactionSegmentCodec.encode(month.atDay(1).toEpochDay(), rows);
+        try {
+            write(encoded.duplicate(), path);
+            deleteOtherVersions(month, path);
+        } catch (IOException e) {
+            log.warn("Failed to write transaction segment {}", path, e);
+        }
+        return encoded;
+    }
+
+    private void write(ByteBuffer encoded, Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (encoded.hasRemaining()) {
+                    channel.write(encoded);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void deleteOtherVersions(YearMonth month, Path current) throws IOException {
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(current.getParent(), month + ".*.seg")) {
+            for (Path segment : segments) {
+                if (!segment.equals(current)) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        }
+    }
+
+    // The user directory's timestamp records the last report, for the idle cleanup
+    private void touch(Long userId) {
+        Path userDirectory = directory.resolve(String.valueOf(userId));
+        try {
+            if (Files.isDirectory(userDirectory)) {
+                Files.setLastModifiedTime(userDirectory, FileTime.from(Instant.now()));
+            }
+        } catch (IOException e) {
+            log.debug("Failed to touch {}", userDirectory, e);
+        }
+    }
+
+    private void deleteUserSegments(Path userDirectory) {
+        if (!Files.exists(userDirectory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(userDirectory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete transaction segments in {}", userDirectory, e);
+        }
+    }
+
+    private List<TransactionSegmentCodec.Row> queryRows(Long userId, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.query(ROWS_SQL, (rs, rowNum) -> new TransactionSegmentCodec.Row(
+                        rs.getObject("transaction_date", LocalDate.class).toEpochDay(),
+                        rs.getBigDecimal("amount").movePointRight(2).longValueExact(),
+                        "INCOME".equals(rs.getString("type")),
+                        rs.getLong("category_id")),
+                userId, startDate, endDate, userId, startDate, endDate);
+    }
+
+    private Path segmentPath(Long userId, YearMonth month, long version) {
+        return directory.resolve(String.valueOf(userId)).resolve(month + "." + version + ".seg");
+    }
+}
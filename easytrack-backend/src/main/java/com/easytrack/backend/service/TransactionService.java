@@ -1,18 +1,24 @@
 package com.easytrack.backend.service;
 
-import com.easytrack.backend.entity.Account;
+import com.easytrack.backend.config.ShardRouter;
 import com.easytrack.backend.entity.Transaction;
+import com.easytrack.backend.event.TransactionChangedEvent;
 import com.easytrack.backend.exception.BadRequestException;
-import com.easytrack.backend.exception.InsufficientBalanceException;
 import com.easytrack.backend.exception.ResourceNotFoundException;
+import com.easytrack.backend.mapper.TransactionMapper;
+import com.easytrack.backend.repository.FieldProjectionRepository;
+import com.easytrack.backend.repository.RecurringOccurrenceRepository;
 import com.easytrack.backend.repository.TransactionRepository;
+import com.easytrack.backend.util.FieldSelection;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -21,7 +27,12 @@ import java.util.Optional;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final RecurringOccurrenceRepository recurringOccurrenceRepository;
     private final AccountService accountService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final ChangeLogService changeLogService;
+    private final FieldProjectionRepository fieldProjectionRepository;
 
     public Transaction createTransaction(Transaction transaction) {
         // Validate that transaction has required relationships
@@ -35,58 +46,84 @@ public class TransactionService {
             throw new BadRequestException("Category is required for transaction");
         }
 
-        // Update account balance
-        Account account = accountService.getAccountById(transaction.getAccount().getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Account", "id", transaction.getAccount().getId()));
+        // Update account balance; expenses are checked against the locked balance
+        applyToBalance(transaction);
 
-        BigDecimal amount = transaction.getAmount();
-        if (transaction.getType() == Transaction.TransactionType.EXPENSE) {
-            // Check if account has sufficient balance
-            if (account.getBalance().compareTo(amount) < 0) {
-                throw new InsufficientBalanceException(
-                        "Insufficient balance. Available: " + account.getBalance() +
-                                " ZAR, Required: " + amount + " ZAR"
-                );
-            }
-            amount = amount.negate();
-        }
-
-        accountService.updateAccountBalance(account.getId(), amount);
-
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        publish(saved, TransactionChangedEvent.ChangeType.CREATED, null);
+        return saved;
     }
 
+    // Archived transactions are listed in the history, so they can be opened by id too
     public Optional<Transaction> getTransactionById(Long id) {
-        return transactionRepository.findById(id);
+        return transactionRepository.findHistoryById(id);
+    }
+
+    // Only transactions in the hot partitions can be changed; archived ones are read-only
+    public Transaction getEditableTransaction(Long id) {
+        return transactionRepository.findById(id).orElseThrow(() -> {
+            if (transactionRepository.countArchivedById(id) > 0) {
+                return new BadRequestException("Transaction " + id + " is archived and can no longer be changed");
+            }
+            return new ResourceNotFoundException("Transaction", "id", id);
+        });
     }
 
     public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+        return shardRouter.fanOut(transactionRepository::findAll);
     }
 
     public List<Transaction> getTransactionsByUserId(Long userId) {
-        return transactionRepository.findByUserId(userId);
+        return transactionRepository.findHistoryByUserId(userId);
     }
 
     public List<Transaction> getTransactionsByUserIdAndType(Long userId, Transaction.TransactionType type) {
-        return transactionRepository.findByUserIdAndType(userId, type);
+        return transactionRepository.findHistoryByUserIdAndType(userId, type.name());
     }
 
     public List<Transaction> getTransactionsByAccountId(Long userId, Long accountId) {
-        return transactionRepository.findByUserIdAndAccountId(userId, accountId);
+        return transactionRepository.findHistoryByUserIdAndAccountId(userId, accountId);
     }
 
     public List<Transaction> getTransactionsByCategoryId(Long userId, Long categoryId) {
-        return transactionRepository.findByUserIdAndCategoryId(userId, categoryId);
+        return transactionRepository.findHistoryByUserIdAndCategoryId(userId, categoryId);
     }
 
     public List<Transaction> getTransactionsByDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.findByUserIdAndTransactionDateBetween(userId, startDate, endDate);
+        return transactionRepository.findHistoryByUserIdAndDateRange(userId, startDate, endDate);
+    }
+
+    // Sparse variants of the history reads above, selecting only the ?fields= columns
+    public List<Map<String, Object>> getTransactionsByUserId(Long userId, String fields) {
+        return fieldProjectionRepository.findTransactionHistory(transactionFields(fields), "user_id = ?", userId);
+    }
+
+    public List<Map<String, Object>> getTransactionsByUserIdAndType(Long userId, Transaction.TransactionType type,
+                                                                     String fields) {
+        return fieldProjectionRepository.findTransactionHistory(transactionFields(fields),
+                "user_id = ? AND type = ?", userId, type.name());
+    }
+
+    public List<Map<String, Object>> getTransactionsByAccountId(Long userId, Long accountId, String fields) {
+        return fieldProjectionRepository.findTransactionHistory(transactionFields(fields),
+                "user_id = ? AND account_id = ?", userId, accountId);
+    }
+
+    public List<Map<String, Object>> getTransactionsByCategoryId(Long userId, Long categoryId, String fields) {
+        return fieldProjectionRepository.findTransactionHistory(transactionFields(fields),
+                "user_id = ? AND category_id = ?", userId, categoryId);
+    }
+
+    public List<Map<String, Object>> getTransactionsByDateRange(Long userId, LocalDate startDate, LocalDate endDate,
+                                                                 String fields) {
+        return fieldProjectionRepository.findTransactionHistory(transactionFields(fields),
+                "user_id = ? AND transaction_date BETWEEN ? AND ?", userId, startDate, endDate);
     }
 
     public Transaction updateTransaction(Long id, Transaction transactionDetails) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Transaction", "id", id));
+        Transaction transaction = getEditableTransaction(id);
+
+        LocalDate previousDate = transaction.getTransactionDate();
 
         // Revert old transaction from account balance
         BigDecimal oldAmount = transaction.getAmount();
@@ -106,27 +143,24 @@ public class TransactionService {
         transaction.setReceiptUrl(transactionDetails.getReceiptUrl());
 
         // Apply new transaction to account balance with balance check
-        Account account = accountService.getAccountById(transaction.getAccount().getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Account", "id", transaction.getAccount().getId()));
+        applyToBalance(transaction);
+
+        Transaction saved = transactionRepository.save(transaction);
+        publish(saved, TransactionChangedEvent.ChangeType.UPDATED, previousDate);
+        return saved;
+    }
 
-        BigDecimal newAmount = transaction.getAmount();
+    private void applyToBalance(Transaction transaction) {
+        Long accountId = transaction.getAccount().getId();
         if (transaction.getType() == Transaction.TransactionType.EXPENSE) {
-            if (account.getBalance().compareTo(newAmount) < 0) {
-                throw new InsufficientBalanceException(
-                        "Insufficient balance. Available: " + account.getBalance() +
-                                " ZAR, Required: " + newAmount + " ZAR"
-                );
-            }
-            newAmount = newAmount.negate();
+            accountService.debitAccountBalance(accountId, transaction.getAmount());
+        } else {
+            accountService.updateAccountBalance(accountId, transaction.getAmount());
         }
-        accountService.updateAccountBalance(transaction.getAccount().getId(), newAmount);
-
-        return transactionRepository.save(transaction);
     }
 
     public void deleteTransaction(Long id) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Transaction", "id", id));
+        Transaction transaction = getEditableTransaction(id);
 
         // Revert transaction from account balance
         BigDecimal amount = transaction.getAmount();
@@ -135,18 +169,20 @@ public class TransactionService {
         }
         accountService.updateAccountBalance(transaction.getAccount().getId(), amount.negate());
 
+        recurringOccurrenceRepository.detachTransaction(id);
         transactionRepository.deleteById(id);
+        publish(transaction, TransactionChangedEvent.ChangeType.DELETED, null);
     }
 
     public BigDecimal getTotalIncomeByDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        BigDecimal total = transactionRepository.sumByUserIdAndTypeAndDateRange(
-                userId, Transaction.TransactionType.INCOME, startDate, endDate);
+        BigDecimal total = transactionRepository.sumHistoryByUserIdAndTypeAndDateRange(
+                userId, Transaction.TransactionType.INCOME.name(), startDate, endDate);
         return total != null ? total : BigDecimal.ZERO;
     }
 
     public BigDecimal getTotalExpenseByDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        BigDecimal total = transactionRepository.sumByUserIdAndTypeAndDateRange(
-                userId, Transaction.TransactionType.EXPENSE, startDate, endDate);
+        BigDecimal total = transactionRepository.sumHistoryByUserIdAndTypeAndDateRange(
+                userId, Transaction.TransactionType.EXPENSE.name(), startDate, endDate);
         return total != null ? total : BigDecimal.ZERO;
     }
 
@@ -155,4 +191,23 @@ public class TransactionService {
         BigDecimal expense = getTotalExpenseByDateRange(userId, startDate, endDate);
         return income.subtract(expense);
     }
-}
\ No newline at end of file
+
+    private static FieldSelection transactionFields(String fields) {
+        return FieldSelection.parse(fields, TransactionMapper.SPARSE_FIELDS);
+    }
+
+    private void publish(Transaction transaction, TransactionChangedEvent.ChangeType changeType, LocalDate previousDate) {
+        ChangeLogService.Operation operation = changeType == TransactionChangedEvent.ChangeType.DELETED
+                ? ChangeLogService.Operation.DELETE
+                : ChangeLogService.Operation.UPSERT;
+        changeLogService.record(transaction.getUser().getId(), ChangeLogService.EntityType.TRANSACTION,
+                transaction.getId(), operation);
+        eventPublisher.publishEvent(new TransactionChangedEvent(
+                transaction.getId(),
+                transaction.getUser().getId(),
+                changeType,
+                transaction.getTransactionDate(),
+                previousDate
+        ));
+    }
+}
@@ -1,41 +1,93 @@
 package com.easytrack.backend.service;
 
+import com.easytrack.backend.config.ShardRouter;
 import com.easytrack.backend.entity.User;
 import com.easytrack.backend.exception.DuplicateResourceException;
 import com.easytrack.backend.exception.ResourceNotFoundException;
 import com.easytrack.backend.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.easytrack.backend.security.UserStatusCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
+    private final ShardRouter shardRouter;
+    private final TransactionSegmentStore segmentStore;
+
+    // Detached snapshots of user rows. Lookups return a detached copy whether or not the row was
+    // cached, so changes to a returned user are never persisted implicitly; use updateUser.
+    private final Cache<Long, User> usersById;
+    private final Cache<String, Long> userIdsByEmail;
+
+    public UserService(UserRepository userRepository,
+                       UserStatusCache userStatusCache,
+                       ShardRouter shardRouter,
+                       TransactionSegmentStore segmentStore,
+                       MeterRegistry meterRegistry,
+                       @Value("${user-cache.max-size:10000}") long maxSize,
+                       @Value("${user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.userStatusCache = userStatusCache;
+        this.shardRouter = shardRouter;
+        this.segmentStore = segmentStore;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.userIdsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByEmail, "users.byEmail");
+    }
 
     public User createUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new DuplicateResourceException("User", "email", user.getEmail());
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        shardRouter.registerUser(saved.getId(), saved.getEmail());
+        return saved;
     }
 
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        return userRepository.findById(id).map(this::cache);
     }
 
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        Long id = userIdsByEmail.getIfPresent(email);
+        User cached = id != null ? usersById.getIfPresent(id) : null;
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        return userRepository.findByEmail(email).map(this::cache);
     }
 
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return shardRouter.fanOut(userRepository::findAll);
     }
 
     public User updateUser(Long id, User userDetails) {
@@ -46,7 +98,9 @@ public class UserService {
         user.setLastName(userDetails.getLastName());
         user.setProfilePictureUrl(userDetails.getProfilePictureUrl());
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        evict(saved);
+        return saved;
     }
 
     public void updateLastLogin(Long id) {
@@ -54,16 +108,65 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         user.setLastLoginAt(LocalDateTime.now());
         userRepository.save(user);
+        evict(user);
     }
 
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User", "id", id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        userRepository.delete(user);
+        shardRouter.unregisterUser(id);
+        segmentStore.deleteUserAfterCommit(id);
+        evict(user);
     }
 
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
-}
\ No newline at end of file
+
+    private User cache(User user) {
+        User snapshot = copyOf(user);
+        usersById.put(snapshot.getId(), snapshot);
+        userIdsByEmail.put(snapshot.getEmail(), snapshot.getId());
+        return copyOf(snapshot);
+    }
+
+    // Evict now and again after commit, so a concurrent reader cannot re-cache the old row
+    private void evict(User user) {
+        Long id = user.getId();
+        String email = user.getEmail();
+        Runnable eviction = () -> {
+            usersById.invalidate(id);
+            userIdsByEmail.invalidate(email);
+            userStatusCache.invalidate(id);
+        };
+
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static User copyOf(User user) {
+        return new User(
+                user.getId(),
+                user.getEmail(),
+                user.getPasswordHash(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getOauthProvider(),
+                user.getOauthId(),
+                user.getProfilePictureUrl(),
+                user.getIsEmailVerified(),
+                user.getIsActive(),
+                user.getCreatedAt(),
+                user.getUpdatedAt(),
+                user.getLastLoginAt()
+        );
+    }
+}
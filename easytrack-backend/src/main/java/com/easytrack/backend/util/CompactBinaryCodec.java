@@ -0,0 +1,280 @@
+package com.easytrack.backend.util;
+
+import com.easytrack.backend.dto.DashboardSummaryDTO;
+import com.easytrack.backend.dto.TransactionDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary encoding of transaction lists and the dashboard summary (application/x-easytrack-binary).
+//   integers   - unsigned LEB128 varints; signed values (ids, amounts, dates) are zigzag encoded first
+//   amounts    - minor units at scale 2, percentages at scale 4
+//   dates      - epoch days; timestamps are epoch microseconds of the stored (UTC) value
+//   strings    - a varint reference: n > 0 repeats the n-th distinct string of the message,
+//                0 is followed by a new string (varint byte length, UTF-8)
+//   records    - a varint mask of the non-null fields (bit i = field i of the schema), then those
+//                fields in schema order. Fields left out by ?fields= are absent like nulls.
+//
+// Message: "ETB" + version, a kind byte, then
+//   kind 1 - transaction list: varint count, count TRANSACTION records
+//   kind 2 - dashboard summary: a DASHBOARD record whose nested fields are BUDGET_SUMMARY,
+//            SPENDING_COMPARISON and QUICK_STATS records and a transaction list (count + records)
+// Field order is part of the format: new fields are only ever appended.
+public final class CompactBinaryCodec {
+
+    private static final byte[] MAGIC = {'E', 'T', 'B', 1};
+    private static final byte KIND_TRANSACTIONS = 1;
+    private static final byte KIND_DASHBOARD = 2;
+    private static final int MONEY_SCALE = 2;
+    private static final int PERCENT_SCALE = 4;
+
+    private enum Kind {
+        INTEGER, MONEY, PERCENT, DATE, TIMESTAMP, STRING, RECORD
+    }
+
+    private record Field(String property, Kind kind) {
+    }
+
+    private static final List<Field> TRANSACTION = List.of(
+            new Field("id", Kind.INTEGER),
+            new Field("userId", Kind.INTEGER),
+            new Field("accountId", Kind.INTEGER),
+            new Field("categoryId", Kind.INTEGER),
+            new Field("type", Kind.STRING),
+            new Field("amount", Kind.MONEY),
+            new Field("transactionDate", Kind.DATE),
+            new Field("description", Kind.STRING),
+            new Field("notes", Kind.STRING),
+            new Field("receiptUrl", Kind.STRING),
+            new Field("createdAt", Kind.TIMESTAMP),
+            new Field("updatedAt", Kind.TIMESTAMP),
+            new Field("categoryName", Kind.STRING),
+            new Field("accountName", Kind.STRING)
+    );
+
+    private static final List<Field> DASHBOARD = List.of(
+            new Field("totalBalance", Kind.MONEY),
+            new Field("monthlyIncome", Kind.MONEY),
+            new Field("monthlyExpense", Kind.MONEY),
+            new Field("netIncome", Kind.MONEY),
+            new Field("budgetSummary", Kind.RECORD),
+            new Field("spendingComparison", Kind.RECORD),
+            new Field("quickStats", Kind.RECORD),
+            new Field("recentTransactions", Kind.RECORD)
+    );
+
+    private static final List<Field> BUDGET_SUMMARY = List.of(
+            new Field("totalBudget", Kind.MONEY),
+            new Field("totalSpent", Kind.MONEY),
+            new Field("remaining", Kind.MONEY),
+            new Field("percentageUsed", Kind.PERCENT),
+            new Field("safeToSpendDaily", Kind.MONEY),
+            new Field("daysRemainingInMonth", Kind.INTEGER)
+    );
+
+    private static final List<Field> SPENDING_COMPARISON = List.of(
+            new Field("currentMonthSpending", Kind.MONEY),
+            new Field("previousMonthSpending", Kind.MONEY),
+            new Field("difference", Kind.MONEY),
+            new Field("percentageChange", Kind.PERCENT),
+            new Field("trend", Kind.STRING)
+    );
+
+    private static final List<Field> QUICK_STATS = List.of(
+            new Field("totalAccounts", Kind.INTEGER),
+            new Field("activeAccounts", Kind.INTEGER),
+            new Field("totalTransactions", Kind.INTEGER),
+            new Field("monthlyTransactions", Kind.INTEGER),
+            new Field("lastTransactionDate", Kind.DATE)
+    );
+
+    private CompactBinaryCodec() {
+    }
+
+    // Rows are TransactionDTOs or the maps returned for ?fields= (keyed by DTO property)
+    public static byte[] encodeTransactions(List<?> rows) {
+        Writer out = new Writer(64 + rows.size() * 48);
+        out.header(KIND_TRANSACTIONS);
+        writeTransactions(out, rows);
+        return out.toByteArray();
+    }
+
+    public static byte[] encodeDashboard(DashboardSummaryDTO summary) {
+        Writer out = new Writer(1024);
+        out.header(KIND_DASHBOARD);
+        Object[] values = {
+                summary.getTotalBalance(),
+                summary.getMonthlyIncome(),
+                summary.getMonthlyExpense(),
+                summary.getNetIncome(),
+                summary.getBudgetSummary(),
+                summary.getSpendingComparison(),
+                summary.getQuickStats(),
+                summary.getRecentTransactions()
+        };
+        out.record(DASHBOARD, values, (writer, field, value) -> {
+            switch (field.property()) {
+                case "budgetSummary" -> {
+                    DashboardSummaryDTO.BudgetSummary budget = (DashboardSummaryDTO.BudgetSummary) value;
+                    writer.record(BUDGET_SUMMARY, new Object[]{
+                            budget.getTotalBudget(), budget.getTotalSpent(), budget.getRemaining(),
+                            budget.getPercentageUsed(), budget.getSafeToSpendDaily(),
+                            budget.getDaysRemainingInMonth()}, null);
+                }
+                case "spendingComparison" -> {
+                    DashboardSummaryDTO.SpendingComparison comparison = (DashboardSummaryDTO.SpendingComparison) value;
+                    writer.record(SPENDING_COMPARISON, new Object[]{
+                            comparison.getCurrentMonthSpending(), comparison.getPreviousMonthSpending(),
+                            comparison.getDifference(), comparison.getPercentageChange(),
+                            comparison.getTrend()}, null);
+                }
+                case "quickStats" -> {
+                    DashboardSummaryDTO.QuickStats stats = (DashboardSummaryDTO.QuickStats) value;
+                    writer.record(QUICK_STATS, new Object[]{
+                            stats.getTotalAccounts(), stats.getActiveAccounts(), stats.getTotalTransactions(),
+                            stats.getMonthlyTransactions(), stats.getLastTransactionDate()}, null);
+                }
+                case "recentTransactions" -> writeTransactions(writer, (List<?>) value);
+                default -> throw new IllegalStateException("Unexpected dashboard field " + field.property());
+            }
+        });
+        return out.toByteArray();
+    }
+
+    private static void writeTransactions(Writer out, List<?> rows) {
+        out.unsigned(rows.size());
+        Object[] values = new Object[TRANSACTION.size()];
+        for (Object row : rows) {
+            if (row instanceof TransactionDTO dto) {
+                values[0] = dto.getId();
+                values[1] = dto.getUserId();
+                values[2] = dto.getAccountId();
+                values[3] = dto.getCategoryId();
+                values[4] = dto.getType();
+                values[5] = dto.getAmount();
+                values[6] = dto.getTransactionDate();
+                values[7] = dto.getDescription();
+                values[8] = dto.getNotes();
+                values[9] = dto.getReceiptUrl();
+                values[10] = dto.getCreatedAt();
+                values[11] = dto.getUpdatedAt();
+                values[12] = dto.getCategoryName();
+                values[13] = dto.getAccountName();
+            } else if (row instanceof Map<?, ?> map) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = map.get(TRANSACTION.get(i).property());
+                }
+            } else {
+                throw new IllegalArgumentException("Not a transaction: " + (row == null ? null : row.getClass()));
+            }
+            out.record(TRANSACTION, values, null);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(Writer out, Field field, Object value);
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int size;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void header(byte kind) {
+            bytes(MAGIC);
+            ensure(1);
+            buffer[size++] = kind;
+        }
+
+        private void record(List<Field> fields, Object[] values, RecordWriter nested) {
+            long mask = 0;
+            for (int i = 0; i < fields.size(); i++) {
+                if (values[i] != null) {
+                    mask |= 1L << i;
+                }
+            }
+            unsigned(mask);
+            for (int i = 0; i < fields.size(); i++) {
+                if (values[i] != null) {
+                    value(fields.get(i), values[i], nested);
+                }
+            }
+        }
+
+        private void value(Field field, Object value, RecordWriter nested) {
+            switch (field.kind()) {
+                case INTEGER -> signed(((Number) value).longValue());
+                case MONEY -> signed(scaled((BigDecimal) value, MONEY_SCALE));
+                case PERCENT -> signed(scaled((BigDecimal) value, PERCENT_SCALE));
+                case DATE -> signed(((LocalDate) value).toEpochDay());
+                case TIMESTAMP -> {
+                    LocalDateTime timestamp = (LocalDateTime) value;
+                    signed(timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000);
+                }
+                case STRING -> string(value instanceof Enum<?> constant ? constant.name() : value.toString());
+                case RECORD -> nested.write(this, field, value);
+            }
+        }
+
+        // Amounts are DECIMAL(15,2) and percentages are computed at scale 4, so this never rounds;
+        // a value with more digits fails instead of being silently changed
+        private static long scaled(BigDecimal value, int scale) {
+            return value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        }
+
+        private void string(String value) {
+            Integer reference = strings.get(value);
+            if (reference != null) {
+                unsigned(reference);
+                return;
+            }
+            strings.put(value, strings.size() + 1);
+            unsigned(0);
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            unsigned(utf8.length);
+            bytes(utf8);
+        }
+
+        private void signed(long value) {
+            unsigned((value << 1) ^ (value >> 63));
+        }
+
+        private void unsigned(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void bytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.easytrack.backend.util;
+
+import com.easytrack.backend.exception.BadRequestException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// A parsed ?fields= list. Each requested DTO property maps to the column that backs it, so
+// queries select only those columns and rows serialize as maps holding only those properties.
+// The id is always included so clients can merge sparse rows into full ones.
+public final class FieldSelection {
+
+    public record Field(String property, String column, Class<?> type) {
+    }
+
+    private final List<Field> fields;
+
+    private FieldSelection(List<Field> fields) {
+        this.fields = fields;
+    }
+
+    // Column names only ever come from the catalog, never from the request
+    public static FieldSelection parse(String requested, List<Field> catalog) {
+        Map<String, Field> byProperty = catalog.stream()
+                .collect(Collectors.toMap(Field::property, field -> field, (a, b) -> a, LinkedHashMap::new));
+
+        Map<String, Field> selected = new LinkedHashMap<>();
+        selected.put("id", byProperty.get("id"));
+        for (String property : requested.split(",")) {
+            String name = property.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            Field field = byProperty.get(name);
+            if (field == null) {
+                throw new BadRequestException("Unknown field '" + name + "'. Available fields: "
+                        + String.join(", ", byProperty.keySet()));
+            }
+            selected.put(name, field);
+        }
+        return new FieldSelection(new ArrayList<>(selected.values()));
+    }
+
+    public String columns() {
+        return fields.stream().map(Field::column).collect(Collectors.joining(", "));
+    }
+
+    public Map<String, Object> mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (Field field : fields) {
+            row.put(field.property(), rs.getObject(field.column(), field.type()));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,76 @@
+package com.easytrack.backend.util;
+
+import com.easytrack.backend.entity.RecurringTransaction.Frequency;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Closed-form occurrence arithmetic for recurring schedules. Occurrence n is always
+// computed from the anchor date (anchor + n periods), so a schedule anchored on the
+// 31st stays on month-end instead of drifting after a short month, and any window
+// can be expanded without stepping through the dates before it.
+public final class RecurrenceCalculator {
+
+    private RecurrenceCalculator() {
+    }
+
+    public static LocalDate occurrence(LocalDate anchor, Frequency frequency, long index) {
+        switch (frequency) {
+            case DAILY:
+                return anchor.plusDays(index);
+            case WEEKLY:
+                return anchor.plusWeeks(index);
+            case MONTHLY:
+                return anchor.plusMonths(index);
+            case YEARLY:
+                return anchor.plusYears(index);
+            default:
+                throw new IllegalArgumentException("Unsupported frequency: " + frequency);
+        }
+    }
+
+    // Smallest index whose occurrence falls on or after the given date
+    public static long firstIndexOnOrAfter(LocalDate anchor, Frequency frequency, LocalDate date) {
+        if (!date.isAfter(anchor)) {
+            return 0;
+        }
+
+        long index;
+        switch (frequency) {
+            case DAILY:
+                return ChronoUnit.DAYS.between(anchor, date);
+            case WEEKLY:
+                return Math.floorDiv(ChronoUnit.DAYS.between(anchor, date) + 6, 7);
+            case MONTHLY:
+                index = ChronoUnit.MONTHS.between(anchor, date);
+                break;
+            case YEARLY:
+                index = ChronoUnit.YEARS.between(anchor, date);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported frequency: " + frequency);
+        }
+
+        // Whole months/years between the dates can land one period short because of clamping
+        return occurrence(anchor, frequency, index).isBefore(date) ? index + 1 : index;
+    }
+
+    public static LocalDate nextAfter(LocalDate anchor, Frequency frequency, LocalDate date) {
+        return occurrence(anchor, frequency, firstIndexOnOrAfter(anchor, frequency, date.plusDays(1)));
+    }
+
+    // All occurrences within [from, to], both inclusive
+    public static List<LocalDate> occurrencesBetween(LocalDate anchor, Frequency frequency,
+                                                     LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (long index = firstIndexOnOrAfter(anchor, frequency, from); ; index++) {
+            LocalDate date = occurrence(anchor, frequency, index);
+            if (date.isAfter(to)) {
+                return dates;
+            }
+            dates.add(date);
+        }
+    }
+}
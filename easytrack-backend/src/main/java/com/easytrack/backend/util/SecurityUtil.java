@@ -2,7 +2,8 @@ package com.easytrack.backend.util;
 
 import com.easytrack.backend.entity.User;
 import com.easytrack.backend.exception.UnauthorizedException;
-import com.easytrack.backend.repository.UserRepository;
+import com.easytrack.backend.security.AuthenticatedUser;
+import com.easytrack.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -13,31 +14,44 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class SecurityUtil {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
 
     public User getAuthenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = getPrincipal();
 
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new UnauthorizedException("User is not authenticated");
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return userService.getUserById(authenticatedUser.getId())
+                    .orElseThrow(() -> new UnauthorizedException("Authenticated user not found in database"));
         }
 
-        Object principal = authentication.getPrincipal();
-
         if (!(principal instanceof UserDetails)) {
             throw new UnauthorizedException("Invalid authentication principal");
         }
 
         String email = ((UserDetails) principal).getUsername();
 
-        return userRepository.findByEmail(email)
+        return userService.getUserByEmail(email)
                 .orElseThrow(() -> new UnauthorizedException("Authenticated user not found in database"));
     }
 
     public Long getAuthenticatedUserId() {
+        // Read straight from the token-backed principal; no user lookup needed
+        if (getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.getId();
+        }
         return getAuthenticatedUser().getId();
     }
 
+    private Object getPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new UnauthorizedException("User is not authenticated");
+        }
+
+        return authentication.getPrincipal();
+    }
+
     public void verifyUserAccess(Long userId) {
         Long authenticatedUserId = getAuthenticatedUserId();
         if (!authenticatedUserId.equals(userId)) {
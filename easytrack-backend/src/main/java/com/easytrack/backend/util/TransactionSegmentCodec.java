@@ -0,0 +1,136 @@
+package com.easytrack.backend.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Columnar encoding of one user's transactions for one month.
+// Layout: header, category dictionary, then four columns (dates, amounts, types, categories)
+// stored back to back so a scan walks each column sequentially.
+//   dates      - unsigned varint day deltas, the first relative to the segment's base day
+//   amounts    - zigzag varint amounts in minor units (cents)
+//   types      - one bit per row, set for income
+//   categories - varint index into the dictionary, most frequent categories get the smallest codes
+public final class TransactionSegmentCodec {
+
+    private static final int MAGIC = 0x45545347; // "ETSG"
+    private static final byte VERSION = 1;
+
+    private TransactionSegmentCodec() {
+    }
+
+    public record Row(long epochDay, long amountMinor, boolean income, long categoryId) {
+    }
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        void visit(long epochDay, long amountMinor, boolean income, long categoryId);
+    }
+
+    // Rows must be sorted by date and on or after baseEpochDay
+    public static ByteBuffer encode(long baseEpochDay, List<Row> rows) {
+        Map<Long, Integer> frequency = new HashMap<>();
+        for (Row row : rows) {
+            frequency.merge(row.categoryId(), 1, Integer::sum);
+        }
+        List<Long> dictionary = new ArrayList<>(frequency.keySet());
+        dictionary.sort((a, b) -> Integer.compare(frequency.get(b), frequency.get(a)));
+        Map<Long, Integer> codes = new HashMap<>();
+        for (int i = 0; i < dictionary.size(); i++) {
+            codes.put(dictionary.get(i), i);
+        }
+
+        int count = rows.size();
+        ByteBuffer dates = ByteBuffer.allocate(count * 5);
+        ByteBuffer amounts = ByteBuffer.allocate(count * 10);
+        ByteBuffer types = ByteBuffer.allocate((count + 7) / 8);
+        ByteBuffer categories = ByteBuffer.allocate(count * 5);
+
+        long previousDay = baseEpochDay;
+        for (int i = 0; i < count; i++) {
+            Row row = rows.get(i);
+            if (row.epochDay() < previousDay) {
+                throw new IllegalArgumentException("Segment rows must be sorted by date");
+            }
+            writeVarLong(dates, row.epochDay() - previousDay);
+            previousDay = row.epochDay();
+            writeVarLong(amounts, (row.amountMinor() << 1) ^ (row.amountMinor() >> 63));
+            if (row.income()) {
+                types.put(i >>> 3, (byte) (types.get(i >>> 3) | (1 << (i & 7))));
+            }
+            writeVarLong(categories, codes.get(row.categoryId()));
+        }
+        types.position(types.capacity());
+
+        int headerSize = 4 + 1 + 4 + 8 + 4 + dictionary.size() * 8 + 4 * 4;
+        ByteBuffer out = ByteBuffer.allocate(headerSize + dates.position() + amounts.position()
+                + types.position() + categories.position());
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.putInt(count);
+        out.putLong(baseEpochDay);
+        out.putInt(dictionary.size());
+        for (Long categoryId : dictionary) {
+            out.putLong(categoryId);
+        }
+        out.putInt(dates.position());
+        out.putInt(amounts.position());
+        out.putInt(types.position());
+        out.putInt(categories.position());
+        out.put(dates.flip()).put(amounts.flip()).put(types.flip()).put(categories.flip());
+        return out.flip();
+    }
+
+    public static void scan(ByteBuffer segment, RowVisitor visitor) {
+        ByteBuffer header = segment.duplicate();
+        if (header.getInt() != MAGIC || header.get() != VERSION) {
+            throw new IllegalStateException("Not a transaction segment");
+        }
+        int count = header.getInt();
+        long day = header.getLong();
+        long[] dictionary = new long[header.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = header.getLong();
+        }
+        int datesLength = header.getInt();
+        int amountsLength = header.getInt();
+        int typesLength = header.getInt();
+        header.getInt();
+
+        ByteBuffer dates = header.slice();
+        ByteBuffer amounts = header.slice(header.position() + datesLength, amountsLength);
+        ByteBuffer types = header.slice(header.position() + datesLength + amountsLength, typesLength);
+        ByteBuffer categories = header.slice(header.position() + datesLength + amountsLength + typesLength,
+                header.remaining() - datesLength - amountsLength - typesLength);
+
+        for (int i = 0; i < count; i++) {
+            day += readVarLong(dates);
+            long zigzag = readVarLong(amounts);
+            boolean income = (types.get(i >>> 3) & (1 << (i & 7))) != 0;
+            long categoryId = dictionary[(int) readVarLong(categories)];
+            visitor.visit(day, (zigzag >>> 1) ^ -(zigzag & 1), income, categoryId);
+        }
+    }
+
+    private static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,52 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Partitions transactions by year of transaction_date and creates the archive table.
+// Written in Java because foreign key names differ between databases created by
+// Hibernate and by V1, and the partition list depends on the existing data.
+public class V3__partition_transactions extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        // Partitioned InnoDB tables cannot have foreign keys in either direction;
+        // the services enforce these references from now on
+        List<Map<String, Object>> foreignKeys = jdbc.queryForList(
+                "SELECT table_name, constraint_name FROM information_schema.referential_constraints " +
+                        "WHERE constraint_schema = DATABASE() " +
+                        "AND (table_name = 'transactions' OR referenced_table_name = 'transactions')");
+        for (Map<String, Object> foreignKey : foreignKeys) {
+            jdbc.execute("ALTER TABLE `" + foreignKey.get("table_name") + "` DROP FOREIGN KEY `"
+                    + foreignKey.get("constraint_name") + "`");
+        }
+
+        // Same columns and indexes as the hot table, so the two can be read with UNION ALL
+        jdbc.execute("CREATE TABLE IF NOT EXISTS transactions_archive LIKE transactions");
+
+        // The partitioning column has to be part of every unique key
+        jdbc.execute("ALTER TABLE transactions DROP PRIMARY KEY, ADD PRIMARY KEY (id, transaction_date)");
+
+        LocalDate oldest = jdbc.queryForObject("SELECT MIN(transaction_date) FROM transactions", LocalDate.class);
+        int currentYear = LocalDate.now().getYear();
+        int firstYear = oldest != null ? Math.min(oldest.getYear(), currentYear) : currentYear;
+
+        List<String> partitions = new ArrayList<>();
+        for (int year = firstYear; year <= currentYear + 1; year++) {
+            partitions.add("PARTITION p" + year + " VALUES LESS THAN ('" + (year + 1) + "-01-01')");
+        }
+        partitions.add("PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+
+        jdbc.execute("ALTER TABLE transactions PARTITION BY RANGE COLUMNS (transaction_date) ("
+                + String.join(", ", partitions) + ")");
+    }
+}
@@ -0,0 +1,194 @@
+-- Baseline of the schema previously generated by Hibernate (ddl-auto: update).
+-- IF NOT EXISTS lets this run against databases created that way: only missing tables are added.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                  BIGINT       NOT NULL AUTO_INCREMENT,
+    email               VARCHAR(255) NOT NULL,
+    password_hash       VARCHAR(255) NOT NULL,
+    first_name          VARCHAR(100),
+    last_name           VARCHAR(100),
+    oauth_provider      VARCHAR(50),
+    oauth_id            VARCHAR(255),
+    profile_picture_url VARCHAR(500),
+    is_email_verified   BIT(1)       NOT NULL,
+    is_active           BIT(1)       NOT NULL,
+    created_at          DATETIME(6)  NOT NULL,
+    updated_at          DATETIME(6)  NOT NULL,
+    last_login_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS accounts (
+    id         BIGINT         NOT NULL,
+    user_id    BIGINT         NOT NULL,
+    name       VARCHAR(100)   NOT NULL,
+    type       VARCHAR(20)    NOT NULL,
+    balance    DECIMAL(15, 2) NOT NULL,
+    currency   VARCHAR(10),
+    icon       VARCHAR(50),
+    color      VARCHAR(20),
+    is_active  BIT(1)         NOT NULL,
+    created_at DATETIME(6)    NOT NULL,
+    updated_at DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_accounts_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS categories (
+    id         BIGINT       NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    name       VARCHAR(100) NOT NULL,
+    type       VARCHAR(20)  NOT NULL,
+    icon       VARCHAR(50),
+    color      VARCHAR(20),
+    is_default BIT(1)       NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    updated_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_categories_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id               BIGINT         NOT NULL,
+    user_id          BIGINT         NOT NULL,
+    account_id       BIGINT         NOT NULL,
+    category_id      BIGINT         NOT NULL,
+    type             VARCHAR(20)    NOT NULL,
+    amount           DECIMAL(15, 2) NOT NULL,
+    transaction_date DATE           NOT NULL,
+    description      VARCHAR(500),
+    notes            VARCHAR(500),
+    receipt_url      VARCHAR(500),
+    created_at       DATETIME(6)    NOT NULL,
+    updated_at       DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_transactions_account FOREIGN KEY (account_id) REFERENCES accounts (id),
+    CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id          BIGINT         NOT NULL,
+    user_id     BIGINT         NOT NULL,
+    category_id BIGINT         NOT NULL,
+    amount      DECIMAL(15, 2) NOT NULL,
+    spent       DECIMAL(15, 2) NOT NULL,
+    period      VARCHAR(20)    NOT NULL,
+    start_date  DATE           NOT NULL,
+    end_date    DATE           NOT NULL,
+    is_active   BIT(1)         NOT NULL,
+    created_at  DATETIME(6)    NOT NULL,
+    updated_at  DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_budgets_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_budgets_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS recurring_transactions (
+    id              BIGINT         NOT NULL,
+    user_id         BIGINT         NOT NULL,
+    account_id      BIGINT         NOT NULL,
+    category_id     BIGINT         NOT NULL,
+    type            VARCHAR(20)    NOT NULL,
+    amount          DECIMAL(15, 2) NOT NULL,
+    title           VARCHAR(100)   NOT NULL,
+    description     VARCHAR(500),
+    frequency       VARCHAR(20)    NOT NULL,
+    start_date      DATE           NOT NULL,
+    end_date        DATE,
+    next_occurrence DATE,
+    is_active       BIT(1)         NOT NULL,
+    created_at      DATETIME(6)    NOT NULL,
+    updated_at      DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_recurring_transactions_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_recurring_transactions_account FOREIGN KEY (account_id) REFERENCES accounts (id),
+    CONSTRAINT fk_recurring_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS recurring_occurrences (
+    id                       BIGINT      NOT NULL,
+    recurring_transaction_id BIGINT      NOT NULL,
+    occurrence_date          DATE        NOT NULL,
+    transaction_id           BIGINT,
+    created_at               DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_recurring_occurrence UNIQUE (recurring_transaction_id, occurrence_date),
+    CONSTRAINT fk_recurring_occurrences_recurring FOREIGN KEY (recurring_transaction_id)
+        REFERENCES recurring_transactions (id) ON DELETE CASCADE,
+    CONSTRAINT fk_recurring_occurrences_transaction FOREIGN KEY (transaction_id)
+        REFERENCES transactions (id) ON DELETE SET NULL
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS transaction_patterns (
+    id                     BIGINT         NOT NULL,
+    user_id                BIGINT         NOT NULL,
+    normalized_description VARCHAR(255)   NOT NULL,
+    type                   VARCHAR(20)    NOT NULL,
+    amount                 DECIMAL(15, 2) NOT NULL,
+    sample_description     VARCHAR(500),
+    account_id             BIGINT,
+    category_id            BIGINT,
+    occurrences            INT            NOT NULL,
+    first_date             DATE           NOT NULL,
+    last_date              DATE           NOT NULL,
+    interval_mean          DOUBLE         NOT NULL,
+    interval_m2            DOUBLE         NOT NULL,
+    suggested_frequency    VARCHAR(20),
+    created_at             DATETIME(6)    NOT NULL,
+    updated_at             DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_transaction_pattern UNIQUE (user_id, type, amount, normalized_description),
+    CONSTRAINT fk_transaction_patterns_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_transaction_patterns_account FOREIGN KEY (account_id) REFERENCES accounts (id),
+    CONSTRAINT fk_transaction_patterns_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name       VARCHAR(100) NOT NULL,
+    owner      VARCHAR(100) NOT NULL,
+    expires_at DATETIME(6)  NOT NULL,
+    version    BIGINT,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT      NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id  VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    used_at    DATETIME(6),
+    revoked_at DATETIME(6),
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_hash UNIQUE (token_hash),
+    INDEX idx_refresh_token_family (family_id),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id   VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (token_id),
+    INDEX idx_revoked_token_revoked_at (revoked_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- Pooled id sequences (MySQL has no sequences; Hibernate uses single-row tables)
+CREATE TABLE IF NOT EXISTS accounts_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS categories_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS transactions_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS budgets_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS recurring_transactions_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS recurring_occurrences_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS transaction_patterns_seq (next_val BIGINT) ENGINE = InnoDB;
+
+INSERT INTO accounts_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM accounts_seq);
+INSERT INTO categories_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM categories_seq);
+INSERT INTO transactions_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM transactions_seq);
+INSERT INTO budgets_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM budgets_seq);
+INSERT INTO recurring_transactions_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM recurring_transactions_seq);
+INSERT INTO recurring_occurrences_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM recurring_occurrences_seq);
+INSERT INTO transaction_patterns_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM transaction_patterns_seq);
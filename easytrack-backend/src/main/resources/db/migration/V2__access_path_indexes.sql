@@ -0,0 +1,14 @@
+-- Composite indexes for the repository access paths
+
+-- History pages and keyset scans: WHERE user_id = ? ORDER BY transaction_date, id
+CREATE INDEX idx_transactions_user_date_id ON transactions (user_id, transaction_date, id);
+
+-- Per-category and per-account listings and summaries within a date range
+CREATE INDEX idx_transactions_user_category_date ON transactions (user_id, category_id, transaction_date);
+CREATE INDEX idx_transactions_user_account_date ON transactions (user_id, account_id, transaction_date);
+
+-- Budget lookup for a category and the period containing a date
+CREATE INDEX idx_budgets_user_category_period ON budgets (user_id, category_id, start_date, end_date);
+
+-- Due-schedule scans of the recurring scheduler
+CREATE INDEX idx_recurring_active_next ON recurring_transactions (is_active, next_occurrence);
@@ -0,0 +1,13 @@
+-- Shard map: the shard holding each user's rows. Only shard 0 (the directory shard) uses it;
+-- it exists on every shard because all shards share one migration history.
+
+CREATE TABLE IF NOT EXISTS shard_directory (
+    user_id    BIGINT       NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    shard_id   INT          NOT NULL,
+    status     VARCHAR(20)  NOT NULL,
+    updated_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (user_id),
+    CONSTRAINT uk_shard_directory_email UNIQUE (email),
+    INDEX idx_shard_directory_shard (shard_id, user_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,10 @@
+-- Per-user data version, bumped in the same transaction as every change to a user's data.
+-- Kept out of the users row so writes do not contend with profile updates or evict the
+-- cached user entity.
+
+CREATE TABLE IF NOT EXISTS user_data_versions (
+    user_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (user_id),
+    CONSTRAINT fk_user_data_versions_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
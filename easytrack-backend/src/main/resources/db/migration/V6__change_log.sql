@@ -0,0 +1,18 @@
+-- Delta sync: one row per entity changed in a user's data version, written in the same
+-- transaction as the change. Deletes are kept as tombstones until the purge job removes rows
+-- older than the retention; log_floor records the newest version purged for each user so
+-- clients holding an older sync token are told to resync.
+
+CREATE TABLE IF NOT EXISTS change_log (
+    user_id     BIGINT      NOT NULL,
+    version     BIGINT      NOT NULL,
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    operation   VARCHAR(10) NOT NULL,
+    changed_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id, version, entity_type, entity_id),
+    INDEX idx_change_log_changed_at (changed_at),
+    CONSTRAINT fk_change_log_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+ALTER TABLE user_data_versions ADD COLUMN log_floor BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,14 @@
+-- Idempotency-Key support: a key is claimed by inserting its row at the start of the creating
+-- transaction and the response is stored in the same transaction, so a committed row always
+-- holds the response that was sent. Rows are purged after the retention period.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    user_id         BIGINT       NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    CHAR(64)     NOT NULL,
+    response_body   MEDIUMTEXT   NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key),
+    INDEX idx_idempotency_keys_created_at (created_at),
+    CONSTRAINT fk_idempotency_keys_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,12 @@
+-- Per-user, per-month version of the transaction history, bumped in the same transaction as every
+-- change to a transaction dated in that month (and when archiving moves a month's rows). Report
+-- segment files are named after the version they were built from, so a change on any node
+-- invalidates them.
+
+CREATE TABLE IF NOT EXISTS transaction_month_versions (
+    user_id BIGINT NOT NULL,
+    month   DATE   NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (user_id, month),
+    CONSTRAINT fk_transaction_month_versions_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
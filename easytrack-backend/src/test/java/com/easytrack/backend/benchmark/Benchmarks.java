@@ -0,0 +1,28 @@
+package com.easytrack.backend.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.regex.Pattern;
+
+// Runs the JMH benchmarks of one class from its @Tag("benchmark") test. Excluded from the
+// default build; run with: mvn -Pbenchmark test -Dtest=<class>. Settings such as a database
+// URL are passed as -Dbenchmark.* properties, which are forwarded to the forked JVMs.
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static void run(Class<?> benchmark) throws RunnerException {
+        String[] forwarded = System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("benchmark."))
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+        new Runner(new OptionsBuilder()
+                .include(Pattern.quote(benchmark.getName()) + "\\.")
+                .jvmArgsAppend(forwarded)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.easytrack.backend.benchmark;
+
+import com.easytrack.backend.dto.TransactionDTO;
+import com.easytrack.backend.entity.Transaction;
+import com.easytrack.backend.util.CompactBinaryCodec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Encode time of a transaction list as JSON (a default Jackson 3 JsonMapper)
+// and as application/x-easytrack-binary. sizes() prints the bytes of each, raw and gzipped.
+// The rows are synthetic, from a fixed seed: 20 categories, 4 accounts and repeating payees.
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompactBinaryEncodeBenchmark {
+
+    private static final String[] PAYEES = {"Checkers", "Woolworths", "Pick n Pay", "Engen", "Shell", "Uber",
+            "Netflix", "Spotify", "Vodacom", "City Power", "Salary", "Takealot", "Mr Price", "Dis-Chem", "Nando's"};
+    private static final String[] ACCOUNTS = {"Cheque", "Savings", "Credit Card", "Cash"};
+
+    @Param({"100", "5000"})
+    public int rows;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private List<TransactionDTO> transactions;
+
+    @Setup
+    public void setUp() {
+        transactions = transactions(rows);
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return jsonMapper.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return CompactBinaryCodec.encodeTransactions(transactions);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        Benchmarks.run(CompactBinaryEncodeBenchmark.class);
+    }
+
+    @Test
+    void sizes() throws IOException {
+        JsonMapper mapper = JsonMapper.builder().build();
+        for (int count : new int[]{100, 5000}) {
+            List<TransactionDTO> list = transactions(count);
+            byte[] json = mapper.writeValueAsBytes(list);
+            byte[] binary = CompactBinaryCodec.encodeTransactions(list);
+            System.out.printf("%d rows: JSON %,d bytes (%,d gzipped), binary %,d bytes (%,d gzipped)%n",
+                    count, json.length, gzip(json).length, binary.length, gzip(binary).length);
+        }
+    }
+
+    static List<TransactionDTO> transactions(int count) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        List<TransactionDTO> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean income = random.nextInt(10) == 0;
+            String payee = PAYEES[random.nextInt(PAYEES.length)];
+            int account = random.nextInt(ACCOUNTS.length);
+            long category = 100 + random.nextInt(20);
+            LocalDate date = start.plusDays(i / 8);
+            LocalDateTime created = date.atTime(8 + random.nextInt(12), random.nextInt(60), random.nextInt(60),
+                    random.nextInt(1_000_000) * 1000);
+            list.add(new TransactionDTO((long) 1_000_000 + i, 7L, 200L + account, category,
+                    income ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE,
+                    BigDecimal.valueOf(100 + random.nextInt(500_000), 2), date,
+                    payee + " " + (1000 + random.nextInt(9000)),
+                    random.nextInt(4) == 0 ? "Split with flatmates" : null, null,
+                    created, created, "Category " + (category - 100), ACCOUNTS[account]));
+        }
+        return list;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,172 @@
+package com.easytrack.backend.benchmark;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Rows per second written to a transactions-shaped table, with the JDBC calls Hibernate makes
+// for each id strategy: IDENTITY inserts one row per round trip to read back its id; a pooled
+// sequence takes a block of 50 ids from the *_seq table in its own transaction and then sends
+// the rows as one batch, rewritten by the driver into a multi-row INSERT.
+// Needs MySQL: -Dbenchmark.jdbc.url=jdbc:mysql://localhost:3306/<scratch db>
+// -Dbenchmark.jdbc.user=... -Dbenchmark.jdbc.password=...; it creates and drops its own tables.
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class IdGenerationInsertBenchmark {
+
+    private static final int ROWS = 50;
+    private static final String COLUMNS = "user_id, account_id, category_id, type, amount, transaction_date, " +
+            "description, created_at, updated_at";
+    private static final String VALUES = "?, ?, ?, ?, ?, ?, ?, ?, ?";
+
+    private Connection connection;
+    private Connection idConnection;
+    private long nextId;
+    private long lastId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc.url");
+        String user = System.getProperty("benchmark.jdbc.user");
+        String password = System.getProperty("benchmark.jdbc.password");
+        url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        connection = DriverManager.getConnection(url, user, password);
+        idConnection = DriverManager.getConnection(url, user, password);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_identity_rows, bench_sequence_rows, bench_sequence_rows_seq");
+            statement.execute("CREATE TABLE bench_identity_rows (id BIGINT NOT NULL AUTO_INCREMENT, " + table() + ")");
+            statement.execute("CREATE TABLE bench_sequence_rows (id BIGINT NOT NULL, " + table() + ")");
+            statement.execute("CREATE TABLE bench_sequence_rows_seq (next_val BIGINT) ENGINE = InnoDB");
+            statement.execute("INSERT INTO bench_sequence_rows_seq VALUES (1)");
+        }
+        connection.setAutoCommit(false);
+        idConnection.setAutoCommit(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_identity_rows, bench_sequence_rows, bench_sequence_rows_seq");
+        }
+        idConnection.close();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identity() throws SQLException {
+        long id = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_identity_rows (" + COLUMNS + ") VALUES (" + VALUES + ")",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    id = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return id;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] pooledSequence() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_sequence_rows (id, " + COLUMNS + ") VALUES (?, " + VALUES + ")")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, nextId());
+                bind(insert, 2, i);
+                insert.addBatch();
+            }
+            int[] counts = insert.executeBatch();
+            connection.commit();
+            return counts;
+        }
+    }
+
+    // Hibernate's pooled optimizer over a table: read and advance next_val in a separate transaction
+    private long nextId() throws SQLException {
+        if (nextId == lastId) {
+            long value;
+            try (Statement select = idConnection.createStatement();
+                 ResultSet rs = select.executeQuery("SELECT next_val FROM bench_sequence_rows_seq FOR UPDATE")) {
+                rs.next();
+                value = rs.getLong(1);
+            }
+            try (PreparedStatement update = idConnection.prepareStatement(
+                    "UPDATE bench_sequence_rows_seq SET next_val = ? WHERE next_val = ?")) {
+                update.setLong(1, value + ROWS);
+                update.setLong(2, value);
+                update.executeUpdate();
+            }
+            idConnection.commit();
+            nextId = value;
+            lastId = value + ROWS;
+        }
+        return nextId++;
+    }
+
+    private static void bind(PreparedStatement insert, int index, int row) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insert.setLong(index, 1L);
+        insert.setLong(index + 1, 1L);
+        insert.setLong(index + 2, 1L);
+        insert.setString(index + 3, "EXPENSE");
+        insert.setBigDecimal(index + 4, BigDecimal.valueOf(1000 + row, 2));
+        insert.setDate(index + 5, Date.valueOf(LocalDate.now()));
+        insert.setString(index + 6, "Imported transaction " + row);
+        insert.setTimestamp(index + 7, now);
+        insert.setTimestamp(index + 8, now);
+    }
+
+    private static String table() {
+        return "user_id BIGINT NOT NULL, account_id BIGINT NOT NULL, category_id BIGINT NOT NULL, " +
+                "type VARCHAR(20) NOT NULL, amount DECIMAL(15, 2) NOT NULL, transaction_date DATE NOT NULL, " +
+                "description VARCHAR(500), created_at DATETIME(6) NOT NULL, updated_at DATETIME(6) NOT NULL, " +
+                "PRIMARY KEY (id), KEY idx_bench_user_date (user_id, transaction_date)) ENGINE = InnoDB";
+    }
+
+    @Test
+    void run() throws RunnerException {
+        Assumptions.assumeTrue(System.getProperty("benchmark.jdbc.url") != null,
+                "Set -Dbenchmark.jdbc.url to a scratch MySQL database");
+        Benchmarks.run(IdGenerationInsertBenchmark.class);
+    }
+}
@@ -0,0 +1,149 @@
+package com.easytrack.backend.benchmark;
+
+import com.easytrack.backend.config.BulkheadDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Requests per second for a burst of concurrent requests, each holding a connection for one query
+// of dbLatencyMillis and, optionally, blocking outside the database (downstream calls, slow
+// clients) for outsideDbMillis. PLATFORM is Tomcat's default 200 request threads over a
+// 10-connection pool; VIRTUAL is a virtual thread per request with the bulkhead in front of the
+// same pool, as in the "virtual-threads" profile. The pool and the query are simulated, so this
+// measures the threading model, not MySQL.
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class VirtualThreadThroughputBenchmark {
+
+    private static final int REQUESTS = 1000;
+    private static final int POOL_SIZE = 10;
+    private static final int REQUEST_THREADS = 200;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public String threads;
+
+    @Param({"2", "10"})
+    public long dbLatencyMillis;
+
+    @Param({"0", "50"})
+    public long outsideDbMillis;
+
+    private ExecutorService executor;
+    private DataSource dataSource;
+
+    @Setup
+    public void setUp() {
+        DataSource pool = new SimulatedPool(POOL_SIZE);
+        if ("VIRTUAL".equals(threads)) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            dataSource = new BulkheadDataSource(pool, POOL_SIZE, Duration.ofSeconds(30));
+        } else {
+            executor = Executors.newFixedThreadPool(REQUEST_THREADS);
+            dataSource = pool;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int burst() throws Exception {
+        List<Callable<Boolean>> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(this::handleRequest);
+        }
+        int completed = 0;
+        for (Future<Boolean> result : executor.invokeAll(requests)) {
+            if (result.get()) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    private boolean handleRequest() throws SQLException, InterruptedException {
+        try (Connection connection = dataSource.getConnection()) {
+            Thread.sleep(dbLatencyMillis);
+        }
+        if (outsideDbMillis > 0) {
+            Thread.sleep(outsideDbMillis);
+        }
+        return true;
+    }
+
+    // Stands in for Hikari: at most size connections out, callers wait for one to be returned
+    private static class SimulatedPool extends AbstractDataSource {
+
+        private final Semaphore connections;
+
+        SimulatedPool(int size) {
+            this.connections = new Semaphore(size, true);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            try {
+                if (!connections.tryAcquire(30, TimeUnit.SECONDS)) {
+                    throw new SQLTransientConnectionException("Connection is not available");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted", e);
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName())) {
+                            connections.release();
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+
+    @Test
+    void run() throws RunnerException {
+        Benchmarks.run(VirtualThreadThroughputBenchmark.class);
+    }
+}
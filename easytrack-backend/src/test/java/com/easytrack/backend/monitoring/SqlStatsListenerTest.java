@@ -0,0 +1,39 @@
+package com.easytrack.backend.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatsListenerTest {
+
+    @Test
+    void masksStringLiteralsIncludingEscapedQuotes() {
+        assertThat(SqlStatsListener.redact("SELECT * FROM users WHERE email = 'o''brien@example.com' AND name = ''"))
+                .isEqualTo("SELECT * FROM users WHERE email = ? AND name = ?");
+    }
+
+    @Test
+    void masksNumericLiterals() {
+        assertThat(SqlStatsListener.redact("UPDATE accounts SET balance = 12.50 WHERE id = 42"))
+                .isEqualTo("UPDATE accounts SET balance = ? WHERE id = ?");
+    }
+
+    @Test
+    void keepsIdentifiersContainingDigits() {
+        assertThat(SqlStatsListener.redact("SELECT t1.id FROM transactions PARTITION (p2024) t1 WHERE t1.user_id = 5"))
+                .isEqualTo("SELECT t1.id FROM transactions PARTITION (p2024) t1 WHERE t1.user_id = ?");
+    }
+
+    @Test
+    void leavesPlaceholdersAlone() {
+        String sql = "SELECT * FROM transactions WHERE user_id = ? AND transaction_date BETWEEN ? AND ?";
+
+        assertThat(SqlStatsListener.redact(sql)).isEqualTo(sql);
+    }
+
+    @Test
+    void masksDigitsInsideStringsOnce() {
+        assertThat(SqlStatsListener.redact("INSERT INTO notes VALUES ('card 4111 1111', 3)"))
+                .isEqualTo("INSERT INTO notes VALUES (?, ?)");
+    }
+}
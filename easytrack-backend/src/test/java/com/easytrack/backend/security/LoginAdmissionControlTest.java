@@ -0,0 +1,71 @@
+package com.easytrack.backend.security;
+
+import com.easytrack.backend.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAdmissionControlTest {
+
+    private LoginAdmissionControl control;
+
+    @BeforeEach
+    void setUp() {
+        // Address budget 100, account budget 3 failures; neither refills during the test
+        control = new LoginAdmissionControl(1, 4, Duration.ofSeconds(5), 100, 0.001, 3, 0.001, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        control.shutdown();
+    }
+
+    @Test
+    void failuresFromManyAddressesLockTheAccount() {
+        for (int i = 0; i < 3; i++) {
+            String clientIp = "10.0.0." + i;
+            control.verify(clientIp, "victim@example.com", () -> true);
+            control.recordFailure("Victim@Example.com");
+        }
+
+        assertThatThrownBy(() -> control.verify("10.0.0.99", "victim@example.com", () -> true))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("account");
+    }
+
+    @Test
+    void successfulLoginsDoNotUseTheAccountBudget() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(control.verify("10.0.0.1", "owner@example.com", () -> true)).isTrue();
+        }
+    }
+
+    @Test
+    void otherAccountsAreNotAffected() {
+        for (int i = 0; i < 3; i++) {
+            control.recordFailure("victim@example.com");
+        }
+
+        assertThat(control.verify("10.0.0.1", "someone@example.com", () -> true)).isTrue();
+    }
+
+    @Test
+    void addressBudgetIsSeparate() {
+        LoginAdmissionControl strict = new LoginAdmissionControl(1, 4, Duration.ofSeconds(5), 1, 0.001, 3, 0.001, 1000);
+        try {
+            strict.verify("10.0.0.1", "a@example.com", () -> true);
+
+            assertThatThrownBy(() -> strict.verify("10.0.0.1", "b@example.com", () -> true))
+                    .isInstanceOf(TooManyRequestsException.class)
+                    .hasMessageContaining("address");
+            assertThat(strict.verify("10.0.0.2", "b@example.com", () -> true)).isTrue();
+        } finally {
+            strict.shutdown();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.easytrack.backend.security;
+
+import com.easytrack.backend.exception.TooManyRequestsException;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private HandlerExceptionResolver resolver;
+    private HandlerMapping handlerMapping;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        resolver = mock(HandlerExceptionResolver.class);
+        handlerMapping = mock(HandlerMapping.class);
+        chain = mock(FilterChain.class);
+        // /api/accounts/{id} for any account path, like the real mapping
+        when(handlerMapping.getHandler(any())).thenAnswer(invocation -> {
+            MockHttpServletRequest request = invocation.getArgument(0);
+            String uri = request.getRequestURI();
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                    uri.startsWith("/api/accounts/") ? "/api/accounts/{id}" : uri);
+            return new HandlerExecutionChain(new Object());
+        });
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(7L, "user@example.com"), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resolvesEachPathOnce() throws Exception {
+        RateLimitFilter filter = filter(100, 100);
+
+        filter.doFilter(request("/api/accounts/1"), new MockHttpServletResponse(), chain);
+        filter.doFilter(request("/api/accounts/1"), new MockHttpServletResponse(), chain);
+
+        verify(handlerMapping, times(1)).getHandler(any());
+        verify(chain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    void pathsOfOneRouteShareABudget() throws Exception {
+        RateLimitFilter filter = filter(100, 1);
+
+        filter.doFilter(request("/api/accounts/1"), new MockHttpServletResponse(), chain);
+        filter.doFilter(request("/api/accounts/2"), new MockHttpServletResponse(), chain);
+
+        verify(chain, times(1)).doFilter(any(), any());
+        verify(resolver).resolveException(any(), any(), isNull(), any(TooManyRequestsException.class));
+    }
+
+    @Test
+    void routeRejectionGivesTheUserTokenBack() throws Exception {
+        RateLimitFilter filter = filter(2, 1);
+
+        filter.doFilter(request("/api/budgets"), new MockHttpServletResponse(), chain);
+        // Rejected by the route budget; without the refund the user budget would now be empty
+        filter.doFilter(request("/api/budgets"), new MockHttpServletResponse(), chain);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("/api/categories"), response, chain);
+
+        verify(chain, times(2)).doFilter(any(), any());
+        verify(resolver, times(1)).resolveException(any(), any(), isNull(), any(TooManyRequestsException.class));
+        assertThat(response.getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("0");
+    }
+
+    private RateLimitFilter filter(long userCapacity, long routeCapacity) {
+        return new RateLimitFilter(resolver, handlerMapping, true, userCapacity, 0.001, routeCapacity, 0.001,
+                1, 0.001, Set.of(), Duration.ofMinutes(10), 1000, 1000);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
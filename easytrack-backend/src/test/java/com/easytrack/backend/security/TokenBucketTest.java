@@ -0,0 +1,81 @@
+package com.easytrack.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void startsFullAndRejectsOnceEmpty() {
+        TokenBucket bucket = new TokenBucket(3, 0.001);
+
+        assertThat(bucket.getAvailableTokens()).isEqualTo(3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryConsume()).isZero();
+        }
+        assertThat(bucket.tryConsume()).isPositive();
+        assertThat(bucket.getAvailableTokens()).isZero();
+    }
+
+    @Test
+    void reportsTheWaitUntilTheNextToken() {
+        // One token per 1000 seconds
+        TokenBucket bucket = new TokenBucket(1, 0.001);
+        bucket.tryConsume();
+
+        long waitNanos = bucket.tryConsume();
+
+        assertThat(waitNanos).isBetween(TimeUnit.SECONDS.toNanos(990), TimeUnit.SECONDS.toNanos(1000));
+        assertThat(bucket.nanosUntilAvailable()).isBetween(TimeUnit.SECONDS.toNanos(990), TimeUnit.SECONDS.toNanos(1000));
+        assertThat(bucket.nanosUntilFull()).isBetween(TimeUnit.SECONDS.toNanos(990), TimeUnit.SECONDS.toNanos(1000));
+    }
+
+    @Test
+    void nanosUntilAvailableDoesNotTakeAToken() {
+        TokenBucket bucket = new TokenBucket(1, 0.001);
+
+        assertThat(bucket.nanosUntilAvailable()).isZero();
+        assertThat(bucket.nanosUntilAvailable()).isZero();
+        assertThat(bucket.getAvailableTokens()).isEqualTo(1);
+        assertThat(bucket.tryConsume()).isZero();
+        assertThat(bucket.nanosUntilAvailable()).isPositive();
+    }
+
+    @Test
+    void refundGivesBackATokenUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 0.001);
+        bucket.tryConsume();
+        bucket.tryConsume();
+
+        bucket.refund();
+
+        assertThat(bucket.getAvailableTokens()).isEqualTo(1);
+        bucket.refund();
+        bucket.refund();
+        assertThat(bucket.getAvailableTokens()).isEqualTo(2);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // One token per 10 ms
+        TokenBucket bucket = new TokenBucket(1, 100);
+        bucket.tryConsume();
+
+        Thread.sleep(50);
+
+        assertThat(bucket.tryConsume()).isZero();
+    }
+
+    @Test
+    void neverRefillsBeyondCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, 1000);
+
+        Thread.sleep(20);
+
+        assertThat(bucket.getAvailableTokens()).isEqualTo(2);
+        assertThat(bucket.nanosUntilFull()).isZero();
+    }
+}
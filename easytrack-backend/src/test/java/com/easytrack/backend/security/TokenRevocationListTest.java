@@ -0,0 +1,91 @@
+package com.easytrack.backend.security;
+
+import com.easytrack.backend.config.ShardRouter;
+import com.easytrack.backend.entity.RevokedToken;
+import com.easytrack.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private RevokedTokenRepository repository;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        ShardRouter shardRouter = mock(ShardRouter.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(shardRouter).forEachShard(any());
+        revocationList = new TokenRevocationList(repository, shardRouter, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void revokedTokensAreReportedImmediately() {
+        revocationList.revoke("jti-1", LocalDateTime.now().plusMinutes(10));
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        assertThat(revocationList.isRevoked("jti-2")).isFalse();
+        assertThat(revocationList.isRevoked(null)).isFalse();
+        verify(repository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotRecorded() {
+        revocationList.revoke("jti-1", LocalDateTime.now().minusSeconds(1));
+
+        assertThat(revocationList.isRevoked("jti-1")).isFalse();
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void reloadReplacesTheListWithTheStoredRevocations() {
+        revocationList.revoke("local", LocalDateTime.now().plusMinutes(10));
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new RevokedToken("stored", LocalDateTime.now().plusMinutes(10), LocalDateTime.now())));
+
+        revocationList.reload();
+
+        assertThat(revocationList.isRevoked("stored")).isTrue();
+        assertThat(revocationList.isRevoked("local")).isFalse();
+    }
+
+    @Test
+    void pollPicksUpRevocationsFromOtherNodes() {
+        revocationList.reload();
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                new RevokedToken("remote", LocalDateTime.now().plusMinutes(10), LocalDateTime.now())));
+
+        revocationList.poll();
+
+        assertThat(revocationList.isRevoked("remote")).isTrue();
+    }
+
+    @Test
+    void purgeForgetsExpiredTokens() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new RevokedToken("expiring", LocalDateTime.now().plusNanos(1), LocalDateTime.now()),
+                new RevokedToken("active", LocalDateTime.now().plusMinutes(10), LocalDateTime.now())));
+        revocationList.reload();
+
+        revocationList.purgeExpired();
+
+        assertThat(revocationList.isRevoked("expiring")).isFalse();
+        assertThat(revocationList.isRevoked("active")).isTrue();
+        verify(repository).deleteExpired(any());
+    }
+}
@@ -0,0 +1,180 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardRouter;
+import com.easytrack.backend.exception.BadRequestException;
+import com.easytrack.backend.exception.IdempotencyKeyMismatchException;
+import com.easytrack.backend.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final Long USER_ID = 7L;
+    private static final String KEY = "key-1";
+
+    record Request(String description, long amount) {
+    }
+
+    record Response(long id, String description) {
+    }
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final AtomicInteger creates = new AtomicInteger();
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new IdempotencyService(jdbcTemplate, jsonMapper, mock(ShardRouter.class),
+                mock(PlatformTransactionManager.class), Duration.ofHours(24), 100);
+        // The mocked transaction manager does not manage synchronizations; the test does
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void firstRequestCreatesAndStoresTheResponse() {
+        IdempotencyService.Result<Response> result = execute(new Request("Rent", 100));
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.body()).isEqualTo(new Response(1, "Rent"));
+        assertThat(creates).hasValue(1);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO idempotency_keys"), eq(USER_ID), eq(KEY), anyString(), any());
+        verify(jdbcTemplate).update(startsWith("UPDATE idempotency_keys"),
+                eq(jsonMapper.writeValueAsString(new Response(1, "Rent"))), eq(USER_ID), eq(KEY));
+    }
+
+    @Test
+    void retryAfterCommitIsReplayedFromMemory() {
+        execute(new Request("Rent", 100));
+        commit();
+
+        IdempotencyService.Result<Response> retry = execute(new Request("Rent", 100));
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.body()).isEqualTo(new Response(1, "Rent"));
+        assertThat(creates).hasValue(1);
+    }
+
+    @Test
+    void retryOnAnotherNodeIsReplayedFromTheStoredRow() throws Exception {
+        Request request = new Request("Rent", 100);
+        claimedElsewhere(hash(request), jsonMapper.writeValueAsString(new Response(41, "Rent")));
+
+        IdempotencyService.Result<Response> retry = execute(request);
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.body()).isEqualTo(new Response(41, "Rent"));
+        assertThat(creates).hasValue(0);
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() {
+        execute(new Request("Rent", 100));
+        commit();
+
+        assertThatThrownBy(() -> execute(new Request("Rent", 200)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(creates).hasValue(1);
+    }
+
+    @Test
+    void storedRowForADifferentRequestIsRejected() throws Exception {
+        claimedElsewhere(hash(new Request("Rent", 100)), jsonMapper.writeValueAsString(new Response(41, "Rent")));
+
+        assertThatThrownBy(() -> execute(new Request("Groceries", 100)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void keyPurgedBeforeTheReplayAsksTheClientToRetry() {
+        when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class))).thenThrow(new DuplicateKeyException("taken"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(USER_ID), eq(KEY))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> execute(new Request("Rent", 100)))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(creates).hasValue(0);
+    }
+
+    @Test
+    void duplicateKeyRaisedByTheCreateIsNotTreatedAsARetry() {
+        assertThatThrownBy(() -> service.execute(USER_ID, KEY, new Request("Rent", 100), Response.class, () -> {
+            throw new DuplicateKeyException("uk_categories_user_name");
+        })).isInstanceOf(DuplicateKeyException.class).hasMessage("uk_categories_user_name");
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void rejectsBlankAndOversizedKeys() {
+        assertThatThrownBy(() -> service.execute(USER_ID, " ", new Request("Rent", 100), Response.class, this::create))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.execute(USER_ID, "k".repeat(256), new Request("Rent", 100), Response.class,
+                this::create))
+                .isInstanceOf(BadRequestException.class);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private IdempotencyService.Result<Response> execute(Request request) {
+        return service.execute(USER_ID, KEY, request, Response.class, () -> create(request));
+    }
+
+    private Response create() {
+        return create(new Request("Rent", 100));
+    }
+
+    private Response create(Request request) {
+        return new Response(creates.incrementAndGet(), request.description());
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    // The hash the service stores: SHA-256 of the request's JSON
+    private String hash(Request request) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(jsonMapper.writeValueAsBytes(request)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claimedElsewhere(String requestHash, String responseBody) {
+        when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class))).thenThrow(new DuplicateKeyException("taken"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(USER_ID), eq(KEY))).thenAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("request_hash")).thenReturn(requestHash);
+            when(rs.getString("response_body")).thenReturn(responseBody);
+            return List.of(invocation.<RowMapper<Object>>getArgument(1).mapRow(rs, 0));
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.entity.RecurringOccurrence;
+import com.easytrack.backend.entity.RecurringTransaction;
+import com.easytrack.backend.entity.Transaction;
+import com.easytrack.backend.entity.User;
+import com.easytrack.backend.repository.RecurringOccurrenceRepository;
+import com.easytrack.backend.repository.RecurringTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecurringOccurrenceServiceTest {
+
+    private static final Long SCHEDULE_ID = 3L;
+
+    private RecurringTransactionRepository recurringTransactionRepository;
+    private RecurringOccurrenceRepository recurringOccurrenceRepository;
+    private TransactionService transactionService;
+    private RecurringOccurrenceService service;
+    private RecurringTransaction recurring;
+
+    @BeforeEach
+    void setUp() {
+        recurringTransactionRepository = mock(RecurringTransactionRepository.class);
+        recurringOccurrenceRepository = mock(RecurringOccurrenceRepository.class);
+        transactionService = mock(TransactionService.class);
+        service = new RecurringOccurrenceService(recurringTransactionRepository, recurringOccurrenceRepository,
+                transactionService, mock(RecurringCalendarService.class), mock(ChangeLogService.class));
+
+        User user = new User();
+        user.setId(7L);
+        recurring = new RecurringTransaction();
+        recurring.setId(SCHEDULE_ID);
+        recurring.setUser(user);
+        recurring.setType(RecurringTransaction.TransactionType.EXPENSE);
+        recurring.setAmount(new BigDecimal("25.00"));
+        recurring.setTitle("Gym");
+        recurring.setFrequency(RecurringTransaction.Frequency.MONTHLY);
+        recurring.setStartDate(LocalDate.of(2024, 1, 31));
+        recurring.setNextOccurrence(LocalDate.of(2024, 1, 31));
+        when(recurringTransactionRepository.findByIdForUpdate(SCHEDULE_ID)).thenReturn(Optional.of(recurring));
+        when(transactionService.createTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void postsEveryMissedOccurrenceOnce() {
+        Optional<LocalDate> next = service.materializeDueOccurrences(SCHEDULE_ID, LocalDate.of(2024, 3, 31));
+
+        ArgumentCaptor<Transaction> created = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionService, times(3)).createTransaction(created.capture());
+        assertThat(created.getAllValues()).extracting(Transaction::getTransactionDate).containsExactly(
+                LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31));
+        verify(recurringOccurrenceRepository, times(3)).save(any(RecurringOccurrence.class));
+        assertThat(next).contains(LocalDate.of(2024, 4, 30));
+    }
+
+    @Test
+    void skipsOccurrencesThatWereAlreadyPosted() {
+        when(recurringOccurrenceRepository.existsByRecurringTransactionIdAndOccurrenceDate(
+                SCHEDULE_ID, LocalDate.of(2024, 1, 31))).thenReturn(true);
+
+        Optional<LocalDate> next = service.materializeDueOccurrences(SCHEDULE_ID, LocalDate.of(2024, 2, 29));
+
+        ArgumentCaptor<Transaction> created = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionService).createTransaction(created.capture());
+        assertThat(created.getValue().getTransactionDate()).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(next).contains(LocalDate.of(2024, 3, 31));
+    }
+
+    @Test
+    void runningTwiceForTheSameDateDoesNotPostAgain() {
+        service.materializeDueOccurrences(SCHEDULE_ID, LocalDate.of(2024, 1, 31));
+        when(recurringOccurrenceRepository.existsByRecurringTransactionIdAndOccurrenceDate(
+                eq(SCHEDULE_ID), any())).thenReturn(true);
+
+        service.materializeDueOccurrences(SCHEDULE_ID, LocalDate.of(2024, 1, 31));
+
+        verify(transactionService, times(1)).createTransaction(any());
+    }
+
+    @Test
+    void deactivatesAfterTheEndDate() {
+        recurring.setEndDate(LocalDate.of(2024, 2, 15));
+
+        Optional<LocalDate> next = service.materializeDueOccurrences(SCHEDULE_ID, LocalDate.of(2024, 6, 30));
+
+        verify(transactionService, times(1)).createTransaction(any());
+        assertThat(recurring.getIsActive()).isFalse();
+        assertThat(next).isEmpty();
+    }
+
+    @Test
+    void deletedScheduleIsIgnored() {
+        when(recurringTransactionRepository.findByIdForUpdate(SCHEDULE_ID)).thenReturn(Optional.empty());
+
+        assertThat(service.materializeDueOccurrences(SCHEDULE_ID, LocalDate.of(2024, 6, 30))).isEmpty();
+        verify(transactionService, never()).createTransaction(any());
+    }
+}
@@ -0,0 +1,110 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.config.ShardRouter;
+import com.easytrack.backend.entity.Transaction;
+import com.easytrack.backend.entity.TransactionPattern;
+import com.easytrack.backend.entity.User;
+import com.easytrack.backend.event.TransactionChangedEvent;
+import com.easytrack.backend.repository.RecurringTransactionRepository;
+import com.easytrack.backend.repository.TransactionPatternRepository;
+import com.easytrack.backend.repository.TransactionRepository;
+import com.easytrack.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecurringPatternServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 1);
+
+    private TransactionPatternRepository patternRepository;
+    private TransactionRepository transactionRepository;
+    private RecurringPatternService service;
+
+    @BeforeEach
+    void setUp() {
+        patternRepository = mock(TransactionPatternRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        service = new RecurringPatternService(patternRepository, transactionRepository,
+                mock(RecurringTransactionRepository.class), mock(UserRepository.class),
+                mock(SchedulerLeaseService.class), mock(ShardRouter.class), transactionManager);
+        when(transactionRepository.findById(10L)).thenReturn(Optional.of(transaction()));
+    }
+
+    @Test
+    void newTransactionUpdatesItsGroup() {
+        TransactionPattern pattern = new TransactionPattern();
+        pattern.setOccurrences(1);
+        pattern.setFirstDate(DATE.minusMonths(1));
+        pattern.setLastDate(DATE.minusMonths(1));
+        when(patternRepository.findByUserIdAndTypeAndAmountAndNormalizedDescription(
+                eq(1L), eq(Transaction.TransactionType.EXPENSE), any(), eq("netflix")))
+                .thenReturn(Optional.of(pattern));
+
+        service.onTransactionChanged(created());
+
+        assertThat(pattern.getOccurrences()).isEqualTo(2);
+        assertThat(pattern.getLastDate()).isEqualTo(DATE);
+        verify(patternRepository).saveAndFlush(pattern);
+    }
+
+    @Test
+    void clashingInsertOfANewGroupIsRetried() {
+        TransactionPattern inserted = new TransactionPattern();
+        inserted.setOccurrences(1);
+        inserted.setFirstDate(DATE.minusMonths(1));
+        inserted.setLastDate(DATE.minusMonths(1));
+        when(patternRepository.findByUserIdAndTypeAndAmountAndNormalizedDescription(any(), any(), any(), any()))
+                .thenReturn(Optional.empty(), Optional.of(inserted));
+        when(patternRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_transaction_pattern"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.onTransactionChanged(created());
+
+        assertThat(inserted.getOccurrences()).isEqualTo(2);
+        verify(patternRepository, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void editsAreLeftToTheBackfill() {
+        service.onTransactionChanged(new TransactionChangedEvent(10L, 1L,
+                TransactionChangedEvent.ChangeType.UPDATED, DATE, DATE.minusDays(1)));
+
+        verify(transactionRepository, never()).findById(any());
+    }
+
+    private static TransactionChangedEvent created() {
+        return new TransactionChangedEvent(10L, 1L, TransactionChangedEvent.ChangeType.CREATED, DATE, null);
+    }
+
+    private static Transaction transaction() {
+        User user = new User();
+        user.setId(1L);
+        Transaction transaction = new Transaction();
+        transaction.setId(10L);
+        transaction.setUser(user);
+        transaction.setType(Transaction.TransactionType.EXPENSE);
+        transaction.setAmount(new BigDecimal("199.00"));
+        transaction.setDescription("NETFLIX 1234");
+        transaction.setTransactionDate(DATE);
+        return transaction;
+    }
+}
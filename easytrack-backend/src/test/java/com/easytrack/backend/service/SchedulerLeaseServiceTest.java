@@ -0,0 +1,99 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.entity.SchedulerLease;
+import com.easytrack.backend.repository.SchedulerLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchedulerLeaseServiceTest {
+
+    private static final String LEASE = "recurring-0";
+    private static final Duration DURATION = Duration.ofMinutes(5);
+
+    private SchedulerLeaseRepository leaseRepository;
+    private SchedulerLeaseService service;
+
+    @BeforeEach
+    void setUp() {
+        leaseRepository = mock(SchedulerLeaseRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        service = new SchedulerLeaseService(leaseRepository, transactionManager, "node-a");
+    }
+
+    @Test
+    void claimsAnExpiredOrOwnLease() {
+        when(leaseRepository.claim(eq(LEASE), eq("node-a"), any(), any())).thenReturn(1);
+
+        assertThat(service.tryAcquire(LEASE, DURATION)).isTrue();
+        verify(leaseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void firstUseInsertsTheLease() {
+        when(leaseRepository.existsById(LEASE)).thenReturn(false);
+        when(leaseRepository.findById(LEASE)).thenReturn(Optional.of(lease("node-a")));
+
+        assertThat(service.tryAcquire(LEASE, DURATION)).isTrue();
+        verify(leaseRepository).saveAndFlush(any(SchedulerLease.class));
+    }
+
+    @Test
+    void leaseHeldByAnotherNodeIsNotTaken() {
+        when(leaseRepository.existsById(LEASE)).thenReturn(true);
+        when(leaseRepository.findById(LEASE)).thenReturn(Optional.of(lease("node-b")));
+
+        assertThat(service.tryAcquire(LEASE, DURATION)).isFalse();
+        verify(leaseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void losingTheInsertRaceIsNotAnError() {
+        when(leaseRepository.saveAndFlush(any(SchedulerLease.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThat(service.tryAcquire(LEASE, DURATION)).isFalse();
+    }
+
+    @Test
+    void runWithLeaseReleasesEvenWhenTheTaskFails() {
+        when(leaseRepository.claim(eq(LEASE), eq("node-a"), any(), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> service.runWithLease(LEASE, DURATION, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(leaseRepository).release(eq(LEASE), eq("node-a"), any());
+    }
+
+    @Test
+    void runWithLeaseSkipsTheTaskWithoutTheLease() {
+        when(leaseRepository.existsById(LEASE)).thenReturn(true);
+        when(leaseRepository.findById(LEASE)).thenReturn(Optional.of(lease("node-b")));
+
+        assertThat(service.runWithLease(LEASE, DURATION, () -> {
+            throw new AssertionError("must not run");
+        })).isFalse();
+        verify(leaseRepository, never()).release(any(), any(), any());
+    }
+
+    private static SchedulerLease lease(String owner) {
+        return new SchedulerLease(LEASE, owner, LocalDateTime.now().plus(DURATION), 0L);
+    }
+}
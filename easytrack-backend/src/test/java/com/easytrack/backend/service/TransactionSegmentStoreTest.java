@@ -0,0 +1,122 @@
+package com.easytrack.backend.service;
+
+import com.easytrack.backend.util.TransactionSegmentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionSegmentStoreTest {
+
+    private static final Long USER_ID = 7L;
+    private static final YearMonth MONTH = YearMonth.now().minusMonths(2);
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionSegmentStore store;
+    private final Map<YearMonth, Long> versions = new HashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        store = new TransactionSegmentStore(jdbcTemplate, directory, Duration.ofDays(30));
+        when(jdbcTemplate.queryForObject(anyString(), eq(LocalDate.class), eq(USER_ID), eq(USER_ID)))
+                .thenReturn(MONTH.atDay(5));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map.Entry<YearMonth, Long> entry : versions.entrySet()) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getObject("month", LocalDate.class)).thenReturn(entry.getKey().atDay(1));
+                when(rs.getLong("version")).thenReturn(entry.getValue());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT month, version"), any(RowCallbackHandler.class),
+                any(Object[].class));
+        when(jdbcTemplate.query(startsWith("SELECT transaction_date"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(new TransactionSegmentCodec.Row(MONTH.atDay(5).toEpochDay(), 1250, false, 3)));
+    }
+
+    @Test
+    void closedMonthIsBuiltOnceAndThenReadFromDisk() {
+        assertThat(scanMonth()).hasSize(1);
+        assertThat(scanMonth()).hasSize(1);
+
+        verify(jdbcTemplate, times(1)).query(startsWith("SELECT transaction_date"), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void changedMonthVersionRebuildsAndReplacesTheSegment() throws Exception {
+        scanMonth();
+        versions.put(MONTH, 4L);
+
+        scanMonth();
+
+        verify(jdbcTemplate, times(2)).query(startsWith("SELECT transaction_date"), any(RowMapper.class), any(Object[].class));
+        try (var files = Files.list(directory.resolve(String.valueOf(USER_ID)))) {
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactly(MONTH + ".4.seg");
+        }
+    }
+
+    @Test
+    void monthsBeforeTheFirstTransactionAreSkipped() throws Exception {
+        store.scan(USER_ID, MONTH.minusYears(20), MONTH, (epochDay, amountMinor, income, categoryId) -> {
+        });
+
+        verify(jdbcTemplate, times(1)).query(startsWith("SELECT transaction_date"), any(RowMapper.class), any(Object[].class));
+        try (var files = Files.list(directory.resolve(String.valueOf(USER_ID)))) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void userWithoutTransactionsReadsNothing() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(LocalDate.class), eq(USER_ID), eq(USER_ID))).thenReturn(null);
+
+        assertThat(scanMonth()).isEmpty();
+        verify(jdbcTemplate, never()).query(startsWith("SELECT transaction_date"), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void deletedUsersSegmentsAreRemoved() {
+        scanMonth();
+
+        store.deleteUserAfterCommit(USER_ID);
+
+        assertThat(directory.resolve(String.valueOf(USER_ID))).doesNotExist();
+    }
+
+    private List<Long> scanMonth() {
+        List<Long> amounts = new ArrayList<>();
+        store.scan(USER_ID, MONTH, MONTH, (epochDay, amountMinor, income, categoryId) -> amounts.add(amountMinor));
+        return amounts;
+    }
+}
@@ -0,0 +1,250 @@
+package com.easytrack.backend.util;
+
+import com.easytrack.backend.dto.DashboardSummaryDTO;
+import com.easytrack.backend.dto.TransactionDTO;
+import com.easytrack.backend.entity.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactBinaryCodecTest {
+
+    private static final String[] TRANSACTION_FIELDS = {
+            "id", "userId", "accountId", "categoryId", "type", "amount", "transactionDate", "description",
+            "notes", "receiptUrl", "createdAt", "updatedAt", "categoryName", "accountName"};
+
+    @Test
+    void transactionsRoundTrip() {
+        TransactionDTO full = transaction(1L, "Groceries", new BigDecimal("-123.45"));
+        TransactionDTO sparse = new TransactionDTO();
+        sparse.setId(2L);
+        sparse.setAmount(new BigDecimal("0.10"));
+        sparse.setTransactionDate(LocalDate.of(1969, 12, 31));
+
+        List<Map<String, Object>> decoded = new Decoder(CompactBinaryCodec.encodeTransactions(List.of(full, sparse)))
+                .transactions(1);
+
+        assertThat(decoded).hasSize(2);
+        assertThat(decoded.get(0)).isEqualTo(asMap(full));
+        assertThat(decoded.get(1)).containsExactly(
+                Map.entry("id", 2L),
+                Map.entry("amount", new BigDecimal("0.10")),
+                Map.entry("transactionDate", LocalDate.of(1969, 12, 31)));
+    }
+
+    @Test
+    void repeatedStringsAreSentOnce() {
+        List<TransactionDTO> rows = List.of(
+                transaction(1L, "Groceries", BigDecimal.ONE),
+                transaction(2L, "Groceries", BigDecimal.TEN));
+
+        byte[] encoded = CompactBinaryCodec.encodeTransactions(rows);
+
+        assertThat(occurrences(encoded, "Groceries".getBytes(StandardCharsets.UTF_8))).isEqualTo(1);
+        assertThat(new Decoder(encoded).transactions(1)).extracting(row -> row.get("categoryName"))
+                .containsExactly("Groceries", "Groceries");
+    }
+
+    @Test
+    void sparseMapRowsRoundTrip() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 9L);
+        row.put("description", "Rent");
+
+        assertThat(new Decoder(CompactBinaryCodec.encodeTransactions(List.of(row))).transactions(1))
+                .containsExactly(row);
+    }
+
+    @Test
+    void dashboardRoundTrip() {
+        DashboardSummaryDTO summary = new DashboardSummaryDTO(
+                new BigDecimal("1500.00"), new BigDecimal("3000.00"), new BigDecimal("1200.50"), new BigDecimal("1799.50"),
+                new DashboardSummaryDTO.BudgetSummary(new BigDecimal("2000.00"), new BigDecimal("1200.50"),
+                        new BigDecimal("799.50"), new BigDecimal("60.0250"), new BigDecimal("57.11"), 14),
+                new DashboardSummaryDTO.SpendingComparison(new BigDecimal("1200.50"), new BigDecimal("1000.00"),
+                        new BigDecimal("200.50"), new BigDecimal("20.0500"), "UP"),
+                new DashboardSummaryDTO.QuickStats(3, 2, 120, 15, LocalDate.of(2024, 6, 1)),
+                List.of(transaction(5L, "Dining", new BigDecimal("42.00"))));
+
+        Decoder decoder = new Decoder(CompactBinaryCodec.encodeDashboard(summary));
+        decoder.header(2);
+        long mask = decoder.unsigned();
+
+        assertThat(mask).isEqualTo(0xFF);
+        assertThat(decoder.money()).isEqualTo(new BigDecimal("1500.00"));
+        assertThat(decoder.money()).isEqualTo(new BigDecimal("3000.00"));
+        assertThat(decoder.money()).isEqualTo(new BigDecimal("1200.50"));
+        assertThat(decoder.money()).isEqualTo(new BigDecimal("1799.50"));
+
+        assertThat(decoder.unsigned()).isEqualTo(0b111111);
+        assertThat(List.of(decoder.money(), decoder.money(), decoder.money(), decoder.percent(), decoder.money()))
+                .containsExactly(new BigDecimal("2000.00"), new BigDecimal("1200.50"), new BigDecimal("799.50"),
+                        new BigDecimal("60.0250"), new BigDecimal("57.11"));
+        assertThat(decoder.signed()).isEqualTo(14);
+
+        assertThat(decoder.unsigned()).isEqualTo(0b11111);
+        assertThat(List.of(decoder.money(), decoder.money(), decoder.money(), decoder.percent()))
+                .containsExactly(new BigDecimal("1200.50"), new BigDecimal("1000.00"), new BigDecimal("200.50"),
+                        new BigDecimal("20.0500"));
+        assertThat(decoder.string()).isEqualTo("UP");
+
+        assertThat(decoder.unsigned()).isEqualTo(0b11111);
+        assertThat(List.of(decoder.signed(), decoder.signed(), decoder.signed(), decoder.signed()))
+                .containsExactly(3L, 2L, 120L, 15L);
+        assertThat(LocalDate.ofEpochDay(decoder.signed())).isEqualTo(LocalDate.of(2024, 6, 1));
+
+        assertThat(decoder.transactionList()).containsExactly(asMap(summary.getRecentTransactions().get(0)));
+        assertThat(decoder.atEnd()).isTrue();
+    }
+
+    @Test
+    void rejectsAmountsThatWouldBeRounded() {
+        TransactionDTO row = transaction(1L, "Groceries", new BigDecimal("1.005"));
+
+        assertThatThrownBy(() -> CompactBinaryCodec.encodeTransactions(List.of(row)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private static TransactionDTO transaction(Long id, String categoryName, BigDecimal amount) {
+        return new TransactionDTO(id, 10L, 20L, 30L, Transaction.TransactionType.EXPENSE, amount,
+                LocalDate.of(2024, 2, 29), "Weekly shop", "Notes ünïcödé", null,
+                LocalDateTime.of(2024, 2, 29, 18, 30, 15, 123_456_000),
+                LocalDateTime.of(2024, 3, 1, 9, 0),
+                categoryName, "Cheque");
+    }
+
+    // The DTO as the decoder returns it: non-null properties in schema order
+    private static Map<String, Object> asMap(TransactionDTO dto) {
+        Object[] values = {dto.getId(), dto.getUserId(), dto.getAccountId(), dto.getCategoryId(),
+                dto.getType() != null ? dto.getType().name() : null, dto.getAmount(), dto.getTransactionDate(),
+                dto.getDescription(), dto.getNotes(), dto.getReceiptUrl(), dto.getCreatedAt(), dto.getUpdatedAt(),
+                dto.getCategoryName(), dto.getAccountName()};
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                map.put(TRANSACTION_FIELDS[i], values[i]);
+            }
+        }
+        return map;
+    }
+
+    private static int occurrences(byte[] haystack, byte[] needle) {
+        int count = 0;
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    // Minimal reader of the format, written from the format description rather than the encoder
+    private static final class Decoder {
+        private final byte[] data;
+        private final List<String> strings = new ArrayList<>();
+        private int position;
+
+        private Decoder(byte[] data) {
+            this.data = data;
+        }
+
+        private List<Map<String, Object>> transactions(int kind) {
+            header(kind);
+            List<Map<String, Object>> rows = transactionList();
+            assertThat(atEnd()).isTrue();
+            return rows;
+        }
+
+        private void header(int kind) {
+            assertThat(new byte[]{data[0], data[1], data[2], data[3]}).containsExactly('E', 'T', 'B', 1);
+            assertThat(data[4]).isEqualTo((byte) kind);
+            position = 5;
+        }
+
+        private List<Map<String, Object>> transactionList() {
+            int count = (int) unsigned();
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                long mask = unsigned();
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int field = 0; field < TRANSACTION_FIELDS.length; field++) {
+                    if ((mask & (1L << field)) != 0) {
+                        row.put(TRANSACTION_FIELDS[field], transactionValue(field));
+                    }
+                }
+                rows.add(row);
+            }
+            return rows;
+        }
+
+        private Object transactionValue(int field) {
+            return switch (field) {
+                case 0, 1, 2, 3 -> signed();
+                case 5 -> money();
+                case 6 -> LocalDate.ofEpochDay(signed());
+                case 10, 11 -> {
+                    long micros = signed();
+                    yield LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                            (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+                }
+                default -> string();
+            };
+        }
+
+        private BigDecimal money() {
+            return BigDecimal.valueOf(signed(), 2);
+        }
+
+        private BigDecimal percent() {
+            return BigDecimal.valueOf(signed(), 4);
+        }
+
+        private String string() {
+            int reference = (int) unsigned();
+            if (reference > 0) {
+                return strings.get(reference - 1);
+            }
+            int length = (int) unsigned();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            strings.add(value);
+            return value;
+        }
+
+        private long signed() {
+            long zigzag = unsigned();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        private long unsigned() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private boolean atEnd() {
+            return position == data.length;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.easytrack.backend.util;
+
+import com.easytrack.backend.exception.BadRequestException;
+import com.easytrack.backend.util.FieldSelection.Field;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FieldSelectionTest {
+
+    private static final List<Field> CATALOG = List.of(
+            new Field("id", "t.id", Long.class),
+            new Field("amount", "t.amount", BigDecimal.class),
+            new Field("transactionDate", "t.transaction_date", LocalDate.class),
+            new Field("description", "t.description", String.class));
+
+    @Test
+    void alwaysSelectsTheIdFirst() {
+        assertThat(FieldSelection.parse("amount", CATALOG).columns()).isEqualTo("t.id, t.amount");
+    }
+
+    @Test
+    void keepsRequestedOrderAndIgnoresBlanksAndDuplicates() {
+        FieldSelection selection = FieldSelection.parse(" description , ,amount,id,amount", CATALOG);
+
+        assertThat(selection.columns()).isEqualTo("t.id, t.description, t.amount");
+    }
+
+    @Test
+    void emptyRequestSelectsOnlyTheId() {
+        assertThat(FieldSelection.parse("", CATALOG).columns()).isEqualTo("t.id");
+    }
+
+    @Test
+    void rejectsUnknownFieldsWithoutEchoingColumns() {
+        assertThatThrownBy(() -> FieldSelection.parse("amount,t.user_id", CATALOG))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unknown field 't.user_id'")
+                .hasMessageContaining("id, amount, transactionDate, description");
+    }
+
+    @Test
+    void mapsRowsByPropertyName() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("t.id", Long.class)).thenReturn(7L);
+        when(rs.getObject("t.transaction_date", LocalDate.class)).thenReturn(LocalDate.of(2024, 5, 1));
+
+        Map<String, Object> row = FieldSelection.parse("transactionDate", CATALOG).mapRow(rs, 0);
+
+        assertThat(row).containsExactly(
+                Map.entry("id", 7L),
+                Map.entry("transactionDate", LocalDate.of(2024, 5, 1)));
+    }
+}
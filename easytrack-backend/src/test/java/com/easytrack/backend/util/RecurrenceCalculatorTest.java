@@ -0,0 +1,90 @@
+package com.easytrack.backend.util;
+
+import com.easytrack.backend.entity.RecurringTransaction.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurrenceCalculatorTest {
+
+    @Test
+    void monthlyScheduleOnThe31stStaysOnMonthEnd() {
+        LocalDate anchor = LocalDate.of(2024, 1, 31);
+
+        assertThat(RecurrenceCalculator.occurrencesBetween(anchor, Frequency.MONTHLY,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 5, 31)))
+                .containsExactly(
+                        LocalDate.of(2024, 1, 31),
+                        LocalDate.of(2024, 2, 29),
+                        LocalDate.of(2024, 3, 31),
+                        LocalDate.of(2024, 4, 30),
+                        LocalDate.of(2024, 5, 31));
+    }
+
+    @Test
+    void yearlyScheduleOnLeapDayFallsBackToFebruary28th() {
+        LocalDate anchor = LocalDate.of(2024, 2, 29);
+
+        assertThat(RecurrenceCalculator.occurrence(anchor, Frequency.YEARLY, 1)).isEqualTo(LocalDate.of(2025, 2, 28));
+        assertThat(RecurrenceCalculator.occurrence(anchor, Frequency.YEARLY, 4)).isEqualTo(LocalDate.of(2028, 2, 29));
+    }
+
+    @Test
+    void firstIndexOnOrAfterIsZeroUpToTheAnchor() {
+        LocalDate anchor = LocalDate.of(2024, 3, 10);
+
+        for (Frequency frequency : Frequency.values()) {
+            assertThat(RecurrenceCalculator.firstIndexOnOrAfter(anchor, frequency, anchor)).isZero();
+            assertThat(RecurrenceCalculator.firstIndexOnOrAfter(anchor, frequency, anchor.minusYears(1))).isZero();
+        }
+    }
+
+    @Test
+    void firstIndexOnOrAfterMatchesStepping() {
+        LocalDate anchor = LocalDate.of(2023, 1, 31);
+
+        for (Frequency frequency : Frequency.values()) {
+            for (LocalDate date = anchor; date.isBefore(anchor.plusYears(3)); date = date.plusDays(1)) {
+                long index = RecurrenceCalculator.firstIndexOnOrAfter(anchor, frequency, date);
+
+                assertThat(RecurrenceCalculator.occurrence(anchor, frequency, index)).isAfterOrEqualTo(date);
+                if (index > 0) {
+                    assertThat(RecurrenceCalculator.occurrence(anchor, frequency, index - 1)).isBefore(date);
+                }
+            }
+        }
+    }
+
+    @Test
+    void nextAfterSkipsTheGivenDate() {
+        LocalDate anchor = LocalDate.of(2024, 1, 1);
+
+        assertThat(RecurrenceCalculator.nextAfter(anchor, Frequency.WEEKLY, anchor)).isEqualTo(LocalDate.of(2024, 1, 8));
+        assertThat(RecurrenceCalculator.nextAfter(anchor, Frequency.WEEKLY, LocalDate.of(2024, 1, 3)))
+                .isEqualTo(LocalDate.of(2024, 1, 8));
+        assertThat(RecurrenceCalculator.nextAfter(anchor, Frequency.DAILY, LocalDate.of(2023, 12, 1))).isEqualTo(anchor);
+    }
+
+    @Test
+    void occurrencesBetweenIsInclusiveAndMatchesStepping() {
+        LocalDate anchor = LocalDate.of(2024, 1, 15);
+        LocalDate from = LocalDate.of(2024, 2, 1);
+        LocalDate to = LocalDate.of(2024, 3, 14);
+
+        List<LocalDate> expected = new ArrayList<>();
+        for (LocalDate date = anchor; !date.isAfter(to); date = date.plusWeeks(1)) {
+            if (!date.isBefore(from)) {
+                expected.add(date);
+            }
+        }
+
+        assertThat(RecurrenceCalculator.occurrencesBetween(anchor, Frequency.WEEKLY, from, to)).isEqualTo(expected);
+        assertThat(RecurrenceCalculator.occurrencesBetween(anchor, Frequency.WEEKLY, anchor, anchor)).containsExactly(anchor);
+        assertThat(RecurrenceCalculator.occurrencesBetween(anchor, Frequency.MONTHLY,
+                LocalDate.of(2024, 1, 16), LocalDate.of(2024, 2, 14))).isEmpty();
+    }
+}
@@ -0,0 +1,78 @@
+package com.easytrack.backend.util;
+
+import com.easytrack.backend.util.TransactionSegmentCodec.Row;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionSegmentCodecTest {
+
+    private static final long BASE_DAY = 19_723; // 2024-01-01
+
+    @Test
+    void roundTripsEveryRow() {
+        Random random = new Random(42);
+        List<Row> rows = new ArrayList<>();
+        long day = BASE_DAY;
+        for (int i = 0; i < 500; i++) {
+            day += random.nextInt(3) == 0 ? 1 : 0;
+            long amount = random.nextInt(2_000_000) - 1_000_000L;
+            rows.add(new Row(day, amount, random.nextBoolean(), 1 + random.nextInt(12)));
+        }
+
+        assertThat(decode(TransactionSegmentCodec.encode(BASE_DAY, rows))).isEqualTo(rows);
+    }
+
+    @Test
+    void keepsExtremeAmountsAndIds() {
+        List<Row> rows = List.of(
+                new Row(BASE_DAY, Long.MAX_VALUE, true, Long.MAX_VALUE),
+                new Row(BASE_DAY, Long.MIN_VALUE, false, 1),
+                new Row(BASE_DAY + 30, 0, true, 0));
+
+        assertThat(decode(TransactionSegmentCodec.encode(BASE_DAY, rows))).isEqualTo(rows);
+    }
+
+    @Test
+    void encodesAnEmptySegment() {
+        assertThat(decode(TransactionSegmentCodec.encode(BASE_DAY, List.of()))).isEmpty();
+    }
+
+    @Test
+    void scanDoesNotMoveTheBuffer() {
+        ByteBuffer segment = TransactionSegmentCodec.encode(BASE_DAY, List.of(new Row(BASE_DAY, 100, false, 1)));
+
+        decode(segment);
+
+        assertThat(segment.position()).isZero();
+        assertThat(decode(segment)).hasSize(1);
+    }
+
+    @Test
+    void rejectsUnsortedRows() {
+        List<Row> rows = List.of(new Row(BASE_DAY + 2, 100, false, 1), new Row(BASE_DAY + 1, 100, false, 1));
+
+        assertThatThrownBy(() -> TransactionSegmentCodec.encode(BASE_DAY, rows))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsOtherData() {
+        ByteBuffer notASegment = ByteBuffer.wrap(new byte[32]);
+
+        assertThatThrownBy(() -> decode(notASegment)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<Row> decode(ByteBuffer segment) {
+        List<Row> rows = new ArrayList<>();
+        TransactionSegmentCodec.scan(segment, (epochDay, amountMinor, income, categoryId) ->
+                rows.add(new Row(epochDay, amountMinor, income, categoryId)));
+        return rows;
+    }
+}
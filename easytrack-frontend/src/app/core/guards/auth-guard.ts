@@ -15,7 +15,7 @@ export class AuthGuard implements CanActivate {
     route: ActivatedRouteSnapshot,
     state: RouterStateSnapshot
   ): boolean {
-    if (this.authService.isAuthenticated && this.authService.hasValidToken()) {
+    if (this.authService.isAuthenticated && this.authService.hasSession()) {
       return true;
     }
 
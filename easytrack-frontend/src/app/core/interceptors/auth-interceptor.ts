@@ -1,40 +1,105 @@
 import { Injectable } from '@angular/core';
 import { HttpRequest, HttpHandler, HttpEvent, HttpInterceptor, HttpErrorResponse } from '@angular/common/http';
 import { Observable, throwError } from 'rxjs';
-import { catchError } from 'rxjs/operators';
+import { catchError, finalize, map, shareReplay, switchMap } from 'rxjs/operators';
 import { AuthService } from '../services/auth';
 import { Router } from '@angular/router';
 
+// Renew the access token this long before it expires
+const REFRESH_AHEAD_MS = 60 * 1000;
+
+// Auth endpoints never trigger a refresh themselves
+const AUTH_ENDPOINTS = ['/api/auth/login', '/api/auth/register', '/api/auth/refresh', '/api/auth/logout'];
+
 @Injectable()
 export class AuthInterceptor implements HttpInterceptor {
+  // Refresh in progress, shared by every request that needs it so the token rotates only once
+  private refreshInFlight$: Observable<string> | null = null;
+
   constructor(
     private authService: AuthService,
     private router: Router
   ) {}
 
   intercept(request: HttpRequest<unknown>, next: HttpHandler): Observable<HttpEvent<unknown>> {
-    // Get token from auth service
-    const token = this.authService.getToken();
+    // Send the API's cookies (the read-your-writes window) on cross-origin calls too
+    request = request.clone({ withCredentials: true });
 
-    // Clone request and add authorization header if token exists
-    if (token) {
-      request = request.clone({
-        setHeaders: {
-          Authorization: `Bearer ${token}`
-        }
-      });
+    if (AUTH_ENDPOINTS.some(endpoint => request.url.includes(endpoint))) {
+      return next.handle(this.withToken(request, this.authService.getToken()));
     }
 
-    // Handle response
-    return next.handle(request).pipe(
+    // Renew a token that is about to expire before sending, instead of waiting for the 401
+    if (this.authService.getRefreshToken() && this.authService.tokenExpiresWithin(REFRESH_AHEAD_MS)) {
+      return this.refresh().pipe(
+        catchError(error => {
+          this.endSession();
+          return throwError(() => error);
+        }),
+        switchMap(token => this.send(request, next, token))
+      );
+    }
+
+    return this.send(request, next, this.authService.getToken());
+  }
+
+  private send(request: HttpRequest<unknown>, next: HttpHandler, token: string | null): Observable<HttpEvent<unknown>> {
+    return next.handle(this.withToken(request, token)).pipe(
       catchError((error: HttpErrorResponse) => {
-        if (error.status === 401) {
-          // Unauthorized - token expired or invalid
-          this.authService.logout();
-          this.router.navigate(['/auth/login']);
+        if (error.status !== 401) {
+          return throwError(() => error);
+        }
+
+        // Unauthorized - the token expired or was revoked; renew it once and retry the request
+        if (!this.authService.getRefreshToken()) {
+          this.endSession();
+          return throwError(() => error);
         }
-        return throwError(() => error);
+        return this.refresh().pipe(
+          catchError(() => {
+            this.endSession();
+            return throwError(() => error);
+          }),
+          switchMap(newToken => next.handle(this.withToken(request, newToken)).pipe(
+            catchError((retryError: HttpErrorResponse) => {
+              if (retryError.status === 401) {
+                this.endSession();
+              }
+              return throwError(() => retryError);
+            })
+          ))
+        );
       })
     );
   }
-}
\ No newline at end of file
+
+  private refresh(): Observable<string> {
+    if (!this.refreshInFlight$) {
+      this.refreshInFlight$ = this.authService.refreshToken().pipe(
+        map(response => response.token),
+        finalize(() => this.refreshInFlight$ = null),
+        shareReplay(1)
+      );
+    }
+    return this.refreshInFlight$;
+  }
+
+  private withToken(request: HttpRequest<unknown>, token: string | null): HttpRequest<unknown> {
+    // Clone request and add authorization header if token exists
+    if (!token) {
+      return request;
+    }
+    return request.clone({
+      setHeaders: {
+        Authorization: `Bearer ${token}`
+      }
+    });
+  }
+
+  private endSession(): void {
+    if (this.authService.isAuthenticated) {
+      this.authService.logout();
+    }
+    this.router.navigate(['/auth/login']);
+  }
+}
@@ -19,5 +19,7 @@ export interface RegisterRequest {
 
 export interface AuthResponse {
   token: string;
+  refreshToken: string;
+  expiresIn: number;
   user: User;
 }
\ No newline at end of file
@@ -12,6 +12,8 @@ export interface User {
 
 export interface AuthResponse {
   token: string;
+  refreshToken: string;
+  expiresIn: number;
   user: User;
 }
 
@@ -33,6 +35,7 @@ export interface RegisterData {
 export class AuthService {
   private readonly API_URL = 'http://localhost:8080/api/auth'; // Update with your backend URL
   private readonly TOKEN_KEY = 'easytrack_token';
+  private readonly REFRESH_TOKEN_KEY = 'easytrack_refresh_token';
   private readonly USER_KEY = 'easytrack_user';
 
   private currentUserSubject: BehaviorSubject<User | null>;
@@ -94,10 +97,18 @@ export class AuthService {
    * Logout user
    */
   logout(): void {
+    // Revoke tokens on the server (best effort)
+    const refreshToken = this.getRefreshToken();
+    if (this.getToken() || refreshToken) {
+      this.http.post(`${this.API_URL}/logout`, { refreshToken }).subscribe({ error: () => {} });
+    }
+
     // Clear stored data
     localStorage.removeItem(this.TOKEN_KEY);
+    localStorage.removeItem(this.REFRESH_TOKEN_KEY);
     localStorage.removeItem(this.USER_KEY);
     sessionStorage.removeItem(this.TOKEN_KEY);
+    sessionStorage.removeItem(this.REFRESH_TOKEN_KEY);
     sessionStorage.removeItem(this.USER_KEY);
 
     // Update subjects
@@ -115,6 +126,13 @@ export class AuthService {
     return localStorage.getItem(this.TOKEN_KEY) || sessionStorage.getItem(this.TOKEN_KEY);
   }
 
+  /**
+   * Get stored refresh token
+   */
+  getRefreshToken(): string | null {
+    return localStorage.getItem(this.REFRESH_TOKEN_KEY) || sessionStorage.getItem(this.REFRESH_TOKEN_KEY);
+  }
+
   /**
    * Check if token exists and is valid
    */
@@ -133,12 +151,35 @@ export class AuthService {
   }
 
   /**
-   * Refresh token (if your backend supports it)
+   * Check if the access token is missing or expires within the given time
+   */
+  tokenExpiresWithin(ms: number): boolean {
+    const token = this.getToken();
+    if (!token) return true;
+
+    try {
+      const payload = JSON.parse(atob(token.split('.')[1]));
+      return payload.exp * 1000 - Date.now() < ms;
+    } catch (error) {
+      return true;
+    }
+  }
+
+  /**
+   * Check if the session can continue: a valid access token, or a refresh token to get one
+   */
+  hasSession(): boolean {
+    return this.hasValidToken() || !!this.getRefreshToken();
+  }
+
+  /**
+   * Exchange the refresh token for a new access token (the refresh token rotates too)
    */
   refreshToken(): Observable<AuthResponse> {
-    return this.http.post<AuthResponse>(`${this.API_URL}/refresh`, {})
+    const rememberMe = !!localStorage.getItem(this.REFRESH_TOKEN_KEY);
+    return this.http.post<AuthResponse>(`${this.API_URL}/refresh`, { refreshToken: this.getRefreshToken() })
       .pipe(
-        tap(response => this.handleAuthSuccess(response)),
+        tap(response => this.handleAuthSuccess(response, rememberMe)),
         catchError(this.handleError)
       );
   }
@@ -168,6 +209,7 @@ export class AuthService {
     
     // Store token and user
     storage.setItem(this.TOKEN_KEY, response.token);
+    storage.setItem(this.REFRESH_TOKEN_KEY, response.refreshToken);
     storage.setItem(this.USER_KEY, JSON.stringify(response.user));
 
     // Update subjects